@@ -0,0 +1,61 @@
+package com.thishan.cms_backend.bench;
+
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.service.EnrollmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EnrollmentService write and read paths against the seeded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EnrollmentServiceBenchmark {
+
+	private EnrollmentService enrollmentService;
+
+	// Walks (student, course) pairs the seed data leaves free: course offsets 5 and up
+	private final AtomicInteger nextPair = new AtomicInteger();
+
+	@Setup(Level.Trial)
+	public void setUp(SeededApplication application) {
+		enrollmentService = application.getBean(EnrollmentService.class);
+	}
+
+	@Benchmark
+	public Enrollment createEnrollment() {
+		int pair = nextPair.getAndIncrement();
+		int student = pair % SeededApplication.STUDENTS;
+		int offset = SeededApplication.ENROLLMENTS_PER_STUDENT + pair / SeededApplication.STUDENTS;
+		if (offset >= SeededApplication.COURSES) {
+			throw new IllegalStateException("Ran out of free enrollment pairs; seed more students or courses");
+		}
+		return enrollmentService.createEnrollment(SeededApplication.studentId(student),
+				SeededApplication.courseCode((student + offset) % SeededApplication.COURSES),
+				SeededApplication.SEMESTER, SeededApplication.ACADEMIC_YEAR);
+	}
+
+	@Benchmark
+	public List<Enrollment> getEnrollmentsByStudentId() {
+		return enrollmentService.getEnrollmentsByStudentId(
+				SeededApplication.studentId(ThreadLocalRandom.current().nextInt(SeededApplication.STUDENTS)));
+	}
+}
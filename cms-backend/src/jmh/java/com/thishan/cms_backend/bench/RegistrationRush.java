@@ -0,0 +1,321 @@
+package com.thishan.cms_backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of the traffic at the start of a term: new enrollments, students opening their
+ * enrollments and search, sent over HTTP to the application started as a web server on the
+ * seeded H2 database of the benchmarks. Requests arrive at a fixed average rate (Poisson
+ * arrivals) whether or not earlier ones have completed, as they do from many independent
+ * users, and each latency is measured from the time the request was due to be sent, so a
+ * stalled server shows up as queueing delay rather than as fewer requests. The driver runs
+ * in the same JVM as the application, so results compare builds on one machine, not machines.
+ *
+ * Options (as --name=value): rate (requests per second, default 200), warmup (PT15S),
+ * duration (PT60S), mix (enroll=20,student=60,search=20), max-in-flight (5000; arrivals
+ * beyond it are counted as rejected), seed (42), label (e.g. the commit, copied into the
+ * result) and output (target/loadtest-result.json).
+ */
+public class RegistrationRush {
+
+	private static final String[] STUDENT_QUERIES = {"perer", "silva", "john", "alice", "kumar", "fernando", "s0001"};
+	private static final String[] COURSE_QUERIES = {"data", "calc", "intro", "advanced", "systems", "c01"};
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+	// Latencies above this are recorded as this
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private enum Operation {ENROLL, STUDENT, SEARCH}
+
+	// Latencies and outcomes of one operation during the measurement
+	private static final class Stats {
+
+		private final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+		private final LongAdder requests = new LongAdder();
+		private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+		private void record(long latencyNanos, String error) {
+			requests.increment();
+			latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+			if (error != null) {
+				errors.computeIfAbsent(error, key -> new LongAdder()).increment();
+			}
+		}
+
+		private void reject() {
+			requests.increment();
+			errors.computeIfAbsent("rejected", key -> new LongAdder()).increment();
+		}
+
+		private void addTo(Stats total) {
+			total.latencyMicros.add(latencyMicros);
+			total.requests.add(requests.sum());
+			errors.forEach((key, count) -> total.errors.computeIfAbsent(key, k -> new LongAdder()).add(count.sum()));
+		}
+
+		private Map<String, Object> report(double seconds) {
+			long count = requests.sum();
+			long failed = errors.values().stream().mapToLong(LongAdder::sum).sum();
+			Map<String, Long> errorCounts = new TreeMap<>();
+			errors.forEach((key, value) -> errorCounts.put(key, value.sum()));
+			Map<String, Object> latency = new LinkedHashMap<>();
+			latency.put("p50", millis(latencyMicros.getValueAtPercentile(50)));
+			latency.put("p90", millis(latencyMicros.getValueAtPercentile(90)));
+			latency.put("p99", millis(latencyMicros.getValueAtPercentile(99)));
+			latency.put("p999", millis(latencyMicros.getValueAtPercentile(99.9)));
+			latency.put("max", millis(latencyMicros.getMaxValue()));
+			latency.put("mean", Math.round(latencyMicros.getMean()) / 1000.0);
+			Map<String, Object> report = new LinkedHashMap<>();
+			report.put("requests", count);
+			report.put("throughput", Math.round((count - failed) / seconds * 10) / 10.0);
+			report.put("errorRate", count == 0 ? 0.0 : (double) failed / count);
+			report.put("errors", errorCounts);
+			report.put("latencyMs", latency);
+			return report;
+		}
+
+		private static double millis(long micros) {
+			return micros / 1000.0;
+		}
+	}
+
+	private final Map<String, String> options;
+	private final double rate;
+	private final Duration warmup;
+	private final Duration duration;
+	private final int maxInFlight;
+	private final long seed;
+	private final Map<Operation, Integer> mix = new LinkedHashMap<>();
+
+	private final Map<Operation, Stats> stats = new LinkedHashMap<>();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong enrollments = new AtomicLong();
+	private HttpClient client;
+	private String baseUrl;
+
+	private RegistrationRush(Map<String, String> options) {
+		this.options = options;
+		rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+		warmup = Duration.parse(options.getOrDefault("warmup", "PT15S"));
+		duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+		maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "5000"));
+		seed = Long.parseLong(options.getOrDefault("seed", "42"));
+		for (String entry : options.getOrDefault("mix", "enroll=20,student=60,search=20").split(",")) {
+			String[] parts = entry.split("=");
+			mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+		}
+		if (rate <= 0 || mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+			throw new IllegalArgumentException("rate and mix must be positive");
+		}
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new Stats());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		RegistrationRush loadTest = new RegistrationRush(options);
+		// Devtools would restart the application in a new class loader by calling main again
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		SeededApplication application = new SeededApplication();
+		System.out.printf("Seeding %d students, %d courses and %d enrollments%n", SeededApplication.STUDENTS,
+				SeededApplication.COURSES, SeededApplication.STUDENTS * SeededApplication.ENROLLMENTS_PER_STUDENT);
+		application.start(WebApplicationType.SERVLET);
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+		try {
+			loadTest.baseUrl = "http://localhost:" + application.getPort() + "/api";
+			loadTest.client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5))
+					.executor(executor)
+					.build();
+			Map<String, Object> result = loadTest.run();
+			File output = new File(options.getOrDefault("output", "target/loadtest-result.json"));
+			output.getAbsoluteFile().getParentFile().mkdirs();
+			new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, result);
+			System.out.println("Result written to " + output.getPath());
+		} finally {
+			executor.shutdownNow();
+			application.stop();
+		}
+	}
+
+	private Map<String, Object> run() throws InterruptedException {
+		System.out.printf("Warming up for %s, then measuring for %s at %.0f requests/s%n", warmup, duration, rate);
+		// The schedule only depends on the seed, so runs against different builds send the same requests
+		Random arrivals = new Random(seed);
+		SplittableRandom keys = new SplittableRandom(seed);
+		int mixTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+		long start = System.nanoTime();
+		long measureFrom = start + warmup.toNanos();
+		long end = measureFrom + duration.toNanos();
+		long due = start;
+		while (true) {
+			due += (long) (-Math.log(1 - arrivals.nextDouble()) / rate * 1e9);
+			if (due >= end) {
+				break;
+			}
+			long wait = due - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			Operation operation = pick(keys.nextInt(mixTotal));
+			Stats recordTo = due >= measureFrom ? stats.get(operation) : null;
+			if (inFlight.get() >= maxInFlight) {
+				if (recordTo != null) {
+					recordTo.reject();
+				}
+				continue;
+			}
+			send(request(operation, keys), due, recordTo);
+		}
+		// Let requests sent during the measurement complete
+		long drainUntil = System.nanoTime() + REQUEST_TIMEOUT.toNanos() + TimeUnit.SECONDS.toNanos(5);
+		while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+			Thread.sleep(10);
+		}
+		return report();
+	}
+
+	private Operation pick(int draw) {
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			draw -= entry.getValue();
+			if (draw < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private HttpRequest request(Operation operation, SplittableRandom keys) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT);
+		switch (operation) {
+			case ENROLL -> {
+				// Walks every student/course pair the seed data has not enrolled, so no enrollment is a duplicate
+				long n = enrollments.getAndIncrement();
+				int student = (int) (n % SeededApplication.STUDENTS);
+				int course = (int) ((student + SeededApplication.ENROLLMENTS_PER_STUDENT + n / SeededApplication.STUDENTS)
+						% SeededApplication.COURSES);
+				String body = String.format("{\"studentId\":\"%s\",\"courseCode\":\"%s\",\"semester\":\"%s\",\"academicYear\":\"%s\"}",
+						SeededApplication.studentId(student), SeededApplication.courseCode(course),
+						SeededApplication.SEMESTER, SeededApplication.ACADEMIC_YEAR);
+				builder.uri(URI.create(baseUrl + "/enrollments"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(body));
+			}
+			case STUDENT -> builder.uri(URI.create(baseUrl + "/enrollments/student/"
+					+ SeededApplication.studentId(keys.nextInt(SeededApplication.STUDENTS))));
+			case SEARCH -> builder.uri(URI.create(keys.nextBoolean()
+					? baseUrl + "/search/students?q=" + STUDENT_QUERIES[keys.nextInt(STUDENT_QUERIES.length)]
+					: baseUrl + "/search/courses?q=" + COURSE_QUERIES[keys.nextInt(COURSE_QUERIES.length)]));
+		}
+		return builder.build();
+	}
+
+	private void send(HttpRequest request, long due, Stats recordTo) {
+		inFlight.incrementAndGet();
+		client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+			inFlight.decrementAndGet();
+			if (recordTo == null) {
+				return;
+			}
+			String error = null;
+			if (failure != null) {
+				Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+				error = cause instanceof HttpConnectTimeoutException ? "connect-timeout"
+						: cause instanceof HttpTimeoutException ? "timeout"
+						: cause instanceof IOException ? "io" : cause.getClass().getSimpleName();
+			} else if (response.statusCode() >= 400) {
+				error = Integer.toString(response.statusCode());
+			}
+			recordTo.record(System.nanoTime() - due, error);
+		});
+	}
+
+	private Map<String, Object> report() {
+		double seconds = duration.toNanos() / 1e9;
+		Stats total = new Stats();
+		Map<String, Object> operations = new LinkedHashMap<>();
+		stats.forEach((operation, operationStats) -> {
+			operationStats.addTo(total);
+			operations.put(operation.name().toLowerCase(), operationStats.report(seconds));
+		});
+
+		Map<String, Object> config = new LinkedHashMap<>();
+		config.put("rate", rate);
+		config.put("warmup", warmup.toString());
+		config.put("duration", duration.toString());
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		mix.forEach((operation, weight) -> weights.put(operation.name().toLowerCase(), weight));
+		config.put("mix", weights);
+		config.put("maxInFlight", maxInFlight);
+		config.put("seed", seed);
+		config.put("students", SeededApplication.STUDENTS);
+		config.put("courses", SeededApplication.COURSES);
+		config.put("enrollments", SeededApplication.STUDENTS * SeededApplication.ENROLLMENTS_PER_STUDENT);
+		config.put("javaVersion", System.getProperty("java.version"));
+		config.put("processors", Runtime.getRuntime().availableProcessors());
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("label", options.get("label"));
+		result.put("timestamp", Instant.now().toString());
+		result.put("config", config);
+		result.put("total", total.report(seconds));
+		result.put("operations", operations);
+
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("%-8s %9s %10s %8s %9s %9s %9s %9s", "", "requests", "ok/s", "errors",
+				"p50 ms", "p99 ms", "p999 ms", "max ms"));
+		operations.forEach((name, report) -> lines.add(summary(name, report)));
+		lines.add(summary("total", result.get("total")));
+		lines.forEach(System.out::println);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String summary(String name, Object report) {
+		Map<String, Object> values = (Map<String, Object>) report;
+		Map<String, Object> latency = (Map<String, Object>) values.get("latencyMs");
+		return String.format("%-8s %9d %10.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f", name, values.get("requests"),
+				values.get("throughput"), (double) values.get("errorRate") * 100, latency.get("p50"),
+				latency.get("p99"), latency.get("p999"), latency.get("max"));
+	}
+}
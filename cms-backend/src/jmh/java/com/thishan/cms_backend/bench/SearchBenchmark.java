@@ -0,0 +1,71 @@
+package com.thishan.cms_backend.bench;
+
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import com.thishan.cms_backend.service.CourseService;
+import com.thishan.cms_backend.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student and course search through the services (search index) and through the
+ * repository LIKE queries the services fall back to while the index is building.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+	private static final String STUDENT_QUERY = "perer";
+	private static final String COURSE_QUERY = "data";
+
+	private StudentService studentService;
+	private CourseService courseService;
+	private StudentRepository studentRepository;
+	private CourseRepository courseRepository;
+
+	@Setup(Level.Trial)
+	public void setUp(SeededApplication application) {
+		studentService = application.getBean(StudentService.class);
+		courseService = application.getBean(CourseService.class);
+		studentRepository = application.getBean(StudentRepository.class);
+		courseRepository = application.getBean(CourseRepository.class);
+	}
+
+	@Benchmark
+	public List<Student> searchStudents() {
+		return studentService.searchStudentsByName(STUDENT_QUERY);
+	}
+
+	@Benchmark
+	public List<Student> searchStudentsLike() {
+		return studentRepository.findByNameContainingIgnoreCase(STUDENT_QUERY);
+	}
+
+	@Benchmark
+	public List<Course> searchCourses() {
+		return courseService.searchCoursesByTitle(COURSE_QUERY);
+	}
+
+	@Benchmark
+	public List<Course> searchCoursesLike() {
+		return courseRepository.findByTitleContainingIgnoreCase(COURSE_QUERY);
+	}
+}
@@ -0,0 +1,132 @@
+package com.thishan.cms_backend.bench;
+
+import com.thishan.cms_backend.CmsBackendApplication;
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import com.thishan.cms_backend.service.EnrollmentService;
+import com.thishan.cms_backend.service.SearchService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The application context on a private in-memory H2 database, seeded once per trial.
+ * Volumes can be changed with -Dbench.students and -Dbench.courses (pass them to the
+ * forked JVMs through -jvmArgsAppend). Student i is enrolled in courses i .. i+4 (mod courses).
+ * The load test starts it as a web server on a free port instead.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+	public static final int STUDENTS = Integer.getInteger("bench.students", 10_000);
+	public static final int COURSES = Integer.getInteger("bench.courses", 300);
+	public static final int ENROLLMENTS_PER_STUDENT = 5;
+
+	public static final String SEMESTER = "Fall 2024";
+	public static final String ACADEMIC_YEAR = "2024-2025";
+
+	private static final String[] FIRST_NAMES = {"John", "Jane", "Bob", "Alice", "Charlie", "Nimal", "Kasun",
+			"Sachini", "Dilini", "Ruwan", "Tharindu", "Ishara", "Maria", "David", "Priya", "Omar"};
+	private static final String[] LAST_NAMES = {"Doe", "Smith", "Johnson", "Brown", "Wilson", "Perera",
+			"Fernando", "Silva", "Jayasinghe", "Bandara", "Garcia", "Khan", "Nguyen", "Martin", "Dias", "Kumar"};
+	private static final String[] DEPARTMENTS = {"Computer Science", "Mathematics", "Physics", "English", "Business"};
+	private static final String[] SUBJECTS = {"Computer Science", "Data Structures", "Calculus", "Databases",
+			"Operating Systems", "Linear Algebra", "Mechanics", "Composition", "Statistics", "Accounting"};
+	private static final String[] LEVELS = {"Introduction to", "Foundations of", "Applied", "Advanced", "Topics in"};
+
+	private ConfigurableApplicationContext context;
+
+	@Setup(Level.Trial)
+	public void start() {
+		start(WebApplicationType.NONE);
+	}
+
+	public void start(WebApplicationType type) {
+		SpringApplication application = new SpringApplication(CmsBackendApplication.class);
+		application.setWebApplicationType(type);
+		context = application.run(
+				"--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.sql.init.mode=never",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.com.thishan.cms_backend=WARN",
+				"--logging.level.org.hibernate.SQL=WARN",
+				"--logging.level.org.springframework.web=WARN",
+				"--server.port=0",
+				"--cms.change-log.directory=target/change-log/bench-" + UUID.randomUUID());
+		seed();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	// Port of the web server when started as one
+	public int getPort() {
+		return ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	public static String studentId(int index) {
+		return String.format("S%05d", index);
+	}
+
+	public static String courseCode(int index) {
+		return String.format("C%03d", index);
+	}
+
+	private void seed() {
+		List<Course> courses = new ArrayList<>();
+		for (int c = 0; c < COURSES; c++) {
+			String title = LEVELS[c % LEVELS.length] + " " + SUBJECTS[(c / LEVELS.length) % SUBJECTS.length];
+			courses.add(new Course(courseCode(c), title, "Lectures, tutorials and coursework on " + title,
+					3 + c % 2, SEMESTER, DEPARTMENTS[c % DEPARTMENTS.length]));
+		}
+		getBean(CourseRepository.class).saveAll(courses);
+
+		List<Student> students = new ArrayList<>();
+		for (int s = 0; s < STUDENTS; s++) {
+			String first = FIRST_NAMES[s % FIRST_NAMES.length];
+			String last = LAST_NAMES[(s / FIRST_NAMES.length) % LAST_NAMES.length];
+			students.add(new Student(studentId(s), first, last, (first + "." + last + s + "@university.edu").toLowerCase(),
+					null, DEPARTMENTS[s % DEPARTMENTS.length], 1 + s % 4));
+		}
+		getBean(StudentRepository.class).saveAll(students);
+
+		EnrollmentService enrollmentService = getBean(EnrollmentService.class);
+		List<BulkEnrollmentRow> rows = new ArrayList<>();
+		for (int s = 0; s < STUDENTS; s++) {
+			for (int k = 0; k < ENROLLMENTS_PER_STUDENT; k++) {
+				rows.add(new BulkEnrollmentRow(studentId(s), courseCode((s + k) % COURSES), SEMESTER, ACADEMIC_YEAR));
+			}
+			if (rows.size() + ENROLLMENTS_PER_STUDENT > EnrollmentService.MAX_BULK_SIZE) {
+				enrollmentService.createEnrollments(rows);
+				rows.clear();
+			}
+		}
+		enrollmentService.createEnrollments(rows);
+
+		// Rows were written through the repositories, so the search indexes have to be rebuilt
+		getBean(SearchService.class).rebuildIndexes();
+	}
+}
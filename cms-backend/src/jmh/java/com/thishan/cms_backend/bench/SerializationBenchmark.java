@@ -0,0 +1,83 @@
+package com.thishan.cms_backend.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.repository.EnrollmentRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of enrollment lists with their student and course loaded, in each format
+ * the API negotiates (using the application's mappers, as the controllers do) and with or
+ * without gzip as Tomcat's response compression applies it. The time is the CPU cost per
+ * response; the wireBytes counter is the size of one response body on the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int size;
+
+	@Param({"json", "cbor", "smile"})
+	private String format;
+
+	@Param({"identity", "gzip"})
+	private String encoding;
+
+	private ObjectMapper objectMapper;
+	private List<Enrollment> enrollments;
+
+	// Bytes of the last serialized response, reported next to the time per operation
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class WireBytes {
+		public long wireBytes;
+	}
+
+	@Setup(Level.Trial)
+	public void setUp(SeededApplication application) {
+		objectMapper = switch (format) {
+			case "cbor" -> application.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+			case "smile" -> application.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+			default -> application.getBean(ObjectMapper.class);
+		};
+		enrollments = application.getBean(EnrollmentRepository.class)
+				.findPageAfterId(0L, null, null, null, Limit.of(size));
+	}
+
+	@Benchmark
+	public byte[] serializeEnrollments(WireBytes counters) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+		try (OutputStream out = "gzip".equals(encoding) ? new GZIPOutputStream(bytes, 8192) : bytes) {
+			objectMapper.writeValue(out, enrollments);
+		}
+		counters.wireBytes = bytes.size();
+		return bytes.toByteArray();
+	}
+}
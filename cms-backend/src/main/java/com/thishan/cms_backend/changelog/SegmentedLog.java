@@ -0,0 +1,336 @@
+package com.thishan.cms_backend.changelog;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of newline-terminated records, split into segment files in one directory.
+ * A record's offset is its position in the log: each segment is named after the offset of
+ * its first record and holds the records that follow in order, so offsets are not stored
+ * with the records. Appends are forced to disk before they return. Once the active segment
+ * reaches the segment size a new one is started; retention deletes whole segments from the
+ * head, after which reads from an earlier offset start at the oldest record kept.
+ * <p>
+ * A lock file keeps a second log (in this or another process) from opening the same
+ * directory. Appends are serialized by a lock that reads never take: a read works from the
+ * end of the log published by the last append, so it only sees records whose append has
+ * returned. On opening, a record left incomplete by a crash is cut
+ * off the end of the last segment.
+ */
+public class SegmentedLog implements Closeable {
+    
+    private static final String SUFFIX = ".log";
+    private static final String LOCK_FILE = ".lock";
+    private static final byte NEWLINE = '\n';
+    
+    // Records between entries of a segment's sparse position index
+    static final int INDEX_INTERVAL = 256;
+    
+    // Records read from the log: those at firstOffset up to (excluding) nextOffset
+    public record Batch(List<byte[]> records, long firstOffset, long nextOffset) {}
+    
+    private static class Segment {
+        
+        private final long baseOffset;
+        private final Path path;
+        
+        // Byte positions of records baseOffset, baseOffset + INDEX_INTERVAL, ...; built on first read of a sealed segment
+        private volatile List<Long> index;
+        
+        private Segment(long baseOffset, Path path) {
+            this.baseOffset = baseOffset;
+            this.path = path;
+        }
+    }
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private FileChannel lockChannel;
+    private FileLock lock;
+    
+    // End of the log as of the last append: the active segment, its size and the next offset
+    private record Tail(Segment segment, long size, long nextOffset) {}
+    
+    // Appender state, guarded by appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Segment active;
+    private FileChannel channel;
+    private long activeSize;
+    private long nextOffset;
+    
+    private volatile Tail tail;
+    
+    private SegmentedLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+    
+    // Open the log in a directory, creating it if needed and recovering the end of the last segment
+    public static SegmentedLog open(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        Files.createDirectories(directory);
+        SegmentedLog log = new SegmentedLog(directory, segmentBytes);
+        log.lock();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).forEach(file -> {
+                String name = file.getFileName().toString();
+                long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                log.segments.put(baseOffset, new Segment(baseOffset, file));
+            });
+        }
+        if (log.segments.isEmpty()) {
+            log.startSegment(0);
+        } else {
+            log.recover(log.segments.lastEntry().getValue());
+        }
+        log.tail = new Tail(log.active, log.activeSize, log.nextOffset);
+        return log;
+    }
+    
+    // Offset of the oldest record kept
+    public long startOffset() {
+        return segments.firstKey();
+    }
+    
+    // Offset the next appended record will get
+    public long nextOffset() {
+        return tail.nextOffset();
+    }
+    
+    // Append records (which must not contain newlines) and force them to disk; returns the offset of the first
+    public long append(List<byte[]> records) throws IOException {
+        for (byte[] record : records) {
+            for (byte b : record) {
+                if (b == NEWLINE) {
+                    throw new IllegalArgumentException("Log records must not contain newlines");
+                }
+            }
+        }
+        appendLock.lock();
+        try {
+            return appendLocked(records);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    private long appendLocked(List<byte[]> records) throws IOException {
+        long firstOffset = nextOffset;
+        ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        long pendingStart = activeSize;
+        for (byte[] record : records) {
+            if (activeSize > 0 && activeSize + record.length + 1 > segmentBytes) {
+                write(pending, pendingStart);
+                rollSegment();
+                pendingStart = activeSize;
+            }
+            if ((nextOffset - active.baseOffset) % INDEX_INTERVAL == 0) {
+                active.index.add(activeSize);
+            }
+            pending.write(record);
+            pending.write(NEWLINE);
+            activeSize += record.length + 1;
+            nextOffset++;
+        }
+        write(pending, pendingStart);
+        channel.force(false);
+        tail = new Tail(active, activeSize, nextOffset);
+        return firstOffset;
+    }
+    
+    // Read up to maxRecords records starting at an offset (or at the oldest record kept, if that is later)
+    public Batch read(long fromOffset, int maxRecords) throws IOException {
+        Tail end = tail;
+        Segment lastSegment = end.segment();
+        long lastSegmentSize = end.size();
+        long endOffset = end.nextOffset();
+        long firstOffset = Math.min(Math.max(fromOffset, startOffset()), endOffset);
+        List<byte[]> records = new ArrayList<>();
+        long offset = firstOffset;
+        while (offset < endOffset && records.size() < maxRecords) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                // Deleted by retention while reading
+                break;
+            }
+            Segment segment = entry.getValue();
+            Map.Entry<Long, Segment> next = segments.higherEntry(segment.baseOffset);
+            long segmentEnd = segment == lastSegment || next == null ? endOffset : next.getKey();
+            long sizeLimit = segment == lastSegment ? lastSegmentSize : Long.MAX_VALUE;
+            int wanted = (int) Math.min(maxRecords - records.size(), segmentEnd - offset);
+            if (readSegment(segment, offset, wanted, sizeLimit, records) < wanted) {
+                break;
+            }
+            offset += wanted;
+        }
+        return new Batch(records, firstOffset, firstOffset + records.size());
+    }
+    
+    // Delete sealed segments last written before the cutoff, oldest first; returns the number deleted
+    public int deleteSegmentsBefore(Instant cutoff) throws IOException {
+        appendLock.lock();
+        try {
+            int deleted = 0;
+            for (Segment segment : segments.values()) {
+                if (segment == active || !Files.getLastModifiedTime(segment.path).toInstant().isBefore(cutoff)) {
+                    break;
+                }
+                segments.remove(segment.baseOffset);
+                Files.deleteIfExists(segment.path);
+                deleted++;
+            }
+            return deleted;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+                lock.release();
+                lockChannel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    private void lock() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Log directory " + directory + " is already open");
+        }
+    }
+    
+    // Scan the last segment for its record count and index, cutting off an incomplete last record
+    private void recover(Segment segment) throws IOException {
+        Scan scan = scan(segment.path);
+        segment.index = new CopyOnWriteArrayList<>(scan.index());
+        active = segment;
+        channel = FileChannel.open(segment.path, StandardOpenOption.WRITE);
+        if (channel.size() > scan.end()) {
+            channel.truncate(scan.end());
+            channel.force(false);
+        }
+        activeSize = scan.end();
+        nextOffset = segment.baseOffset + scan.records();
+    }
+    
+    private void rollSegment() throws IOException {
+        channel.force(false);
+        channel.close();
+        startSegment(nextOffset);
+    }
+    
+    private void startSegment(long baseOffset) throws IOException {
+        Segment segment = new Segment(baseOffset, directory.resolve(String.format("%020d", baseOffset) + SUFFIX));
+        // The appender extends the active segment's index while readers use it
+        segment.index = new CopyOnWriteArrayList<>();
+        channel = FileChannel.open(segment.path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.put(baseOffset, segment);
+        active = segment;
+        activeSize = 0;
+    }
+    
+    private void write(ByteArrayOutputStream pending, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        pending.reset();
+    }
+    
+    // Read count records of a segment from an offset, seeking to the nearest indexed record first;
+    // returns the number read
+    private int readSegment(Segment segment, long offset, int count, long sizeLimit, List<byte[]> records)
+            throws IOException {
+        long relative = offset - segment.baseOffset;
+        List<Long> index = segment.index;
+        if (index == null) {
+            // Concurrent first reads may each scan the sealed segment; they build the same index
+            index = scan(segment.path).index();
+            segment.index = index;
+        }
+        long position = index.get((int) (relative / INDEX_INTERVAL));
+        long skip = relative % INDEX_INTERVAL;
+        try (FileChannel file = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            file.position(position);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(file), 65536);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            int read = 0;
+            int b;
+            while (read < count && position < sizeLimit && (b = in.read()) != -1) {
+                position++;
+                if (b != NEWLINE) {
+                    if (skip == 0) {
+                        record.write(b);
+                    }
+                } else if (skip > 0) {
+                    skip--;
+                } else {
+                    records.add(record.toByteArray());
+                    record.reset();
+                    read++;
+                }
+            }
+            return read;
+        }
+    }
+    
+    private record Scan(List<Long> index, long records, long end) {}
+    
+    // Index the complete records of a segment file; end is the position after the last of them
+    private static Scan scan(Path path) throws IOException {
+        List<Long> index = new ArrayList<>();
+        long records = 0;
+        long end = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 65536)) {
+            long position = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == NEWLINE) {
+                    if (records % INDEX_INTERVAL == 0) {
+                        index.add(end);
+                    }
+                    records++;
+                    end = position;
+                }
+            }
+        }
+        return new Scan(index, records, end);
+    }
+}
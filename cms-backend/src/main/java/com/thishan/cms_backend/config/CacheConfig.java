@@ -0,0 +1,19 @@
+package com.thishan.cms_backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction. The Caffeine cache manager, its
+ * size/TTL spec and the cache names are configured under spring.cache.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    // Course catalog caches
+    public static final String COURSES = "courses";
+    public static final String COURSE_BY_CODE = "courseByCode";
+    public static final String COURSES_BY_DEPARTMENT = "coursesByDepartment";
+    public static final String COURSES_BY_SEMESTER = "coursesBySemester";
+}
@@ -0,0 +1,27 @@
+package com.thishan.cms_backend.config;
+
+import com.thishan.cms_backend.metrics.SqlCountingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the Hikari pools so statements and rows are counted for the per-request SQL metrics.
+ */
+@Configuration
+public class DataSourceConfig {
+    
+    @Bean
+    public static BeanPostProcessor dataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new SqlCountingDataSource(hikari);
+                }
+                return bean;
+            }
+        };
+    }
+}
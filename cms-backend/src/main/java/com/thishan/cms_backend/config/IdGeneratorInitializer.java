@@ -0,0 +1,48 @@
+package com.thishan.cms_backend.config;
+
+import com.thishan.cms_backend.entity.Enrollment;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the enrollment ID block counter past the highest existing enrollment ID.
+ * Rows created while enrollments used AUTO_INCREMENT or the old table generator
+ * would otherwise collide with the first IDs handed out by EnrollmentIdGenerator.
+ */
+@Component
+public class IdGeneratorInitializer {
+    
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Injected so the schema exists before the generator is checked
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @PostConstruct
+    public void alignEnrollmentIdGenerator() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM enrollments", Long.class);
+        Long maxBlock = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM enrollment_id_blocks", Long.class);
+        long required = maxId / Enrollment.ID_ALLOCATION_SIZE + 1;
+        if (maxBlock + 1 >= required) {
+            return;
+        }
+        
+        // Inserting a higher block number explicitly does not move an H2 identity, so restart the counter instead
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            jdbcTemplate.execute("ALTER TABLE enrollment_id_blocks ALTER COLUMN id RESTART WITH " + required);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE enrollment_id_blocks AUTO_INCREMENT = " + required);
+        }
+        log.info("Moved enrollment ID blocks from {} to {}", maxBlock + 1, required);
+    }
+}
@@ -0,0 +1,24 @@
+package com.thishan.cms_backend.config;
+
+import com.thishan.cms_backend.metrics.SqlMetricsInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the per-request SQL metrics. Repository method timers
+ * (spring.data.repository.invocations) come from Spring Boot; their
+ * percentiles are configured under management.metrics.distribution.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    private SqlMetricsInterceptor sqlMetricsInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlMetricsInterceptor);
+    }
+}
@@ -0,0 +1,108 @@
+package com.thishan.cms_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, enabled by setting cms.datasource.replica.jdbc-url (plus username,
+ * password and any other Hikari settings under cms.datasource.replica). The primary pool
+ * keeps the spring.datasource settings and runs the Flyway migrations; the replica must
+ * be a copy of it. The application's DataSource routes @Transactional(readOnly = true)
+ * work to the replica while ReplicaLagMonitor finds it current, and everything else to
+ * the primary. Both pools are wrapped by DataSourceConfig like the single pool is.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cms.datasource.replica", name = "jdbc-url")
+public class ReadWriteRoutingConfig {
+    
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("cms.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${cms.datasource.routing.max-replica-lag:PT5S}") Duration maxLag,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, maxLag);
+        Gauge.builder("cms.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMillis)
+                .description("Age of the newest heartbeat on the read replica (-1 when unreachable)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        // Lazy, so the route is chosen at the first statement, once the transaction is marked read-only
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor));
+    }
+    
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * Keeps rows read from the replica out of the second-level cache: read-only transactions
+     * may still read cached entries but never put what they load, so an entry a write has
+     * just invalidated is not refilled with the replica's older copy.
+     */
+    private static class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+        
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws SQLException {
+            Object transactionData = super.beginTransaction(entityManager, definition);
+            // The entity manager can outlive the transaction (open-in-view), so set the mode either way
+            entityManager.unwrap(Session.class).setCacheMode(definition.isReadOnly() ? CacheMode.GET : CacheMode.NORMAL);
+            return transactionData;
+        }
+    }
+}
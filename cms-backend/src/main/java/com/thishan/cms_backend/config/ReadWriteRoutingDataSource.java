@@ -0,0 +1,62 @@
+package com.thishan.cms_backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else
+ * (writes, and work outside a transaction) to the primary. The key is read when a
+ * connection is taken, so the routing proxy must sit behind a LazyConnectionDataSourceProxy:
+ * the transaction manager asks for a connection before it marks the transaction read-only.
+ * A read-only transaction whose results outlive it can stay on the primary with usePrimary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+    
+    // Transaction resource marking a read-only transaction that must not use the replica
+    private static final Object PRIMARY_ONLY = new Object();
+    
+    private final ReplicaLagMonitor lagMonitor;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    // Keep the current read-only transaction on the primary, for reads that are kept after it ends (cache entries):
+    // a copy read from a lagging replica just after a write would be kept until it expires. Call before the
+    // transaction's first statement; does nothing outside a transaction or when there is no replica.
+    public static void usePrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARY_ONLY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_ONLY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_ONLY);
+            }
+        });
+    }
+    
+    // The replica serves read-only transactions unless it is lagging or unreachable, or they must use the primary
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !TransactionSynchronizationManager.hasResource(PRIMARY_ONLY) && lagMonitor.isReplicaUsable()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
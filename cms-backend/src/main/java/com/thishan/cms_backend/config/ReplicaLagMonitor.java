@@ -0,0 +1,74 @@
+package com.thishan.cms_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Measures the read replica's lag with a heartbeat row: each check stamps the current time
+ * on the primary and reads the last stamp that reached the replica. The replica is usable
+ * while that stamp is within the maximum lag; the age keeps growing between checks, so a
+ * replica that stops applying changes (or a check that stops running) falls out of use
+ * without another check. A replica that cannot be reached is out of use until the next
+ * successful check.
+ */
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    
+    // Last heartbeat read from the replica, or -1 when the last check failed
+    private volatile long replicaBeatMillis = -1;
+    
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLag.toMillis();
+    }
+    
+    // Stamp the primary and read the replica's stamp
+    @Scheduled(fixedDelayString = "${cms.datasource.routing.heartbeat-interval:PT1S}",
+            initialDelayString = "${cms.datasource.routing.heartbeat-interval:PT1S}")
+    public void check() {
+        boolean wasUsable = isReplicaUsable();
+        try {
+            primary.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // The replica can still be measured against the last stamp that reached it
+            log.warn("Could not write the replication heartbeat on the primary: {}", e.getMessage());
+        }
+        try {
+            Long beat = replica.queryForObject("SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+            replicaBeatMillis = beat != null ? beat : -1;
+        } catch (RuntimeException e) {
+            replicaBeatMillis = -1;
+            if (wasUsable) {
+                log.warn("Read replica unreachable, reading from the primary: {}", e.getMessage());
+            }
+            return;
+        }
+        if (wasUsable != isReplicaUsable()) {
+            log.info(wasUsable ? "Read replica lagging by {} ms, reading from the primary"
+                    : "Read replica caught up (lag {} ms), routing read-only transactions to it", getLagMillis());
+        }
+    }
+    
+    // Whether read-only transactions may use the replica
+    public boolean isReplicaUsable() {
+        long lag = getLagMillis();
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+    
+    // Age of the newest heartbeat seen on the replica, or -1 when it could not be read
+    public long getLagMillis() {
+        long beat = replicaBeatMillis;
+        return beat < 0 ? -1 : Math.max(0, System.currentTimeMillis() - beat);
+    }
+}
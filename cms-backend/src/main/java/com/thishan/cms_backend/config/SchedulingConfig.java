@@ -0,0 +1,13 @@
+package com.thishan.cms_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs, such as the enrollment counter reconciliation
+ * (cms.enrollment-counts.reconcile-interval, default one hour).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
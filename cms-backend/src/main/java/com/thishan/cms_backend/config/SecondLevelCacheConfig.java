@@ -0,0 +1,67 @@
+package com.thishan.cms_backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate's second-level cache, held in Caffeine through JCache. Hibernate settings
+ * (regions on, query cache, statistics for the actuator metrics) are under
+ * spring.jpa.properties; this class creates the bounded regions they use, so Hibernate
+ * fails at startup if an entity names a region that is not configured here.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    // Entity regions and their natural-id regions
+    public static final String COURSE_REGION = "course";
+    public static final String COURSE_BY_CODE_REGION = "course-by-code";
+    public static final String STUDENT_REGION = "student";
+    public static final String STUDENT_BY_STUDENT_ID_REGION = "student-by-student-id";
+    
+    // Hibernate's query cache regions
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    
+    @Value("${cms.second-level-cache.maximum-size:10000}")
+    private long maximumSize;
+    
+    @Value("${cms.second-level-cache.time-to-live:PT30M}")
+    private Duration timeToLive;
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager() {
+        // A cache manager per application context, so contexts in the same JVM (tests, benchmarks) never share entries
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("cms-backend-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : new String[] {COURSE_REGION, COURSE_BY_CODE_REGION, STUDENT_REGION,
+                STUDENT_BY_STUDENT_ID_REGION, QUERY_RESULTS_REGION}) {
+            cacheManager.createCache(region, boundedRegion());
+        }
+        // Update timestamps must outlive every cached query result that depends on them, so they never expire
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+    
+    private CaffeineConfiguration<Object, Object> boundedRegion() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, so entries need not be copied in and out
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        return configuration;
+    }
+}
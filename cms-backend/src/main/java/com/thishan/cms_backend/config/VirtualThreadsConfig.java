@@ -0,0 +1,35 @@
+package com.thishan.cms_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports which request threading model is in effect. Virtual threads are
+ * switched on by spring.threads.virtual.enabled (see the virtual-threads
+ * profile) and only take effect on a Java 21+ runtime.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingModel() {
+        int javaVersion = Runtime.version().feature();
+        if (!virtualThreadsEnabled) {
+            log.info("Request handling uses the platform thread pool (Java {})", javaVersion);
+        } else if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; " +
+                    "falling back to the platform thread pool", javaVersion);
+        } else {
+            log.info("Request handling and async tasks use virtual threads (Java {})", javaVersion);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.thishan.cms_backend.controller;
+
+import com.thishan.cms_backend.changelog.SegmentedLog;
+import com.thishan.cms_backend.service.ChangeEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/changes")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:3000"}) // Allow Angular frontend
+public class ChangeLogController {
+    
+    // Offset to pass as "from" on the next read
+    public static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+    
+    @Autowired
+    private ChangeEventService changeEventService;
+    
+    // Read change events from an offset as NDJSON, one event per line; an empty body means the consumer is caught up
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (from < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        SegmentedLog.Batch batch = changeEventService.readChanges(from, limit);
+        StreamingResponseBody body = out -> {
+            for (byte[] record : batch.records()) {
+                out.write(record);
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(NEXT_OFFSET_HEADER, Long.toString(batch.nextOffset()))
+                .body(body);
+    }
+    
+    // Number of committed events not yet appended to the change log
+    @GetMapping("/pending")
+    public ResponseEntity<Long> getPendingCount() {
+        return ResponseEntity.ok(changeEventService.getPendingCount());
+    }
+}
@@ -0,0 +1,70 @@
+package com.thishan.cms_backend.controller;
+
+import com.thishan.cms_backend.config.MessageConverterConfig;
+import com.thishan.cms_backend.dto.ResourceVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Conditional GET checks shared by the controllers. The same resource can be sent as
+ * JSON, CBOR or Smile depending on the Accept header, so the ETag names the representation
+ * and the response varies by Accept. The check runs before the body is loaded: a version
+ * read before the body can only cause an extra 200, never a wrong 304. No response gets
+ * Last-Modified: removing a row from a list leaves its latest timestamp unchanged, and a
+ * second-precision date misses a change within the same second, while the ETag includes
+ * the row count and the timestamp to the microsecond.
+ */
+final class ConditionalRequests {
+    
+    // Binary representations, by the ETag suffix that names them
+    private static final List<MediaType> BINARY_TYPES = List.of(MediaType.APPLICATION_CBOR,
+            MessageConverterConfig.APPLICATION_SMILE);
+    
+    private ConditionalRequests() {}
+    
+    // Check the request's ETag against the version of a resource or list; sets ETag and Vary on the response
+    // either way
+    static boolean notModified(ResourceVersion version, WebRequest request) {
+        if (request instanceof NativeWebRequest nativeRequest
+                && nativeRequest.getNativeResponse() instanceof HttpServletResponse response) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(version.etag(representation(request)));
+    }
+    
+    // The representation the message converters will pick: "cbor" or "x-jackson-smile" when the client prefers
+    // it to JSON, otherwise null for JSON (which also answers */* since its converter comes first)
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return null;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return null;
+                }
+                for (MediaType binary : BINARY_TYPES) {
+                    if (type.isCompatibleWith(binary)) {
+                        return binary.getSubtype();
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Rejected by content negotiation later on
+        }
+        return null;
+    }
+}
@@ -1,13 +1,19 @@
 package com.thishan.cms_backend.controller;
 
+import com.thishan.cms_backend.dto.CourseSeats;
+import com.thishan.cms_backend.dto.MultiGetResult;
+import com.thishan.cms_backend.dto.ResourceVersion;
 import com.thishan.cms_backend.entity.Course;
 import com.thishan.cms_backend.service.CourseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -18,16 +24,26 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
     
-    // Get all courses
+    // Get all courses; 304 when the client's copy is current
     @GetMapping
-    public ResponseEntity<List<Course>> getAllCourses() {
+    public ResponseEntity<List<Course>> getAllCourses(WebRequest request) {
         List<Course> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(courses);
+        return listNotModified(courses, request) ? null : ResponseEntity.ok(courses);
+    }
+    
+    // Get all courses with only the given fields, e.g. ?fields=code,title
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCourseFields(@RequestParam List<String> fields) {
+        return getCourseFields(fields, null, null);
     }
     
-    // Get course by ID
+    // Get course by ID; 304 when the client's copy is current
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
+    public ResponseEntity<Course> getCourseById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = courseService.getCourseVersion(id);
+        if (version.exists() && ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
         Optional<Course> course = courseService.getCourseById(id);
         if (course.isPresent()) {
             return ResponseEntity.ok(course.get());
@@ -36,17 +52,51 @@ public class CourseController {
         }
     }
     
-    // Get course by code
+    // Get course by code; 304 when the client's copy is current
     @GetMapping("/code/{code}")
-    public ResponseEntity<Course> getCourseByCode(@PathVariable String code) {
+    public ResponseEntity<Course> getCourseByCode(@PathVariable String code, WebRequest request) {
         Optional<Course> course = courseService.getCourseByCode(code);
         if (course.isPresent()) {
+            if (ConditionalRequests.notModified(ResourceVersion.ofCourses(List.of(course.get())), request)) {
+                return null;
+            }
             return ResponseEntity.ok(course.get());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // Get the seats of a course by code; never cached, since they change with every enrollment
+    @GetMapping("/code/{code}/seats")
+    public ResponseEntity<CourseSeats> getCourseSeats(@PathVariable String code) {
+        Optional<CourseSeats> seats = courseService.getCourseSeats(code);
+        if (seats.isPresent()) {
+            return ResponseEntity.ok(seats.get());
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Get courses by a list of codes in request order, e.g. ?codes=CS101,CS201; unknown codes are listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<MultiGetResult<String, Course>> getCoursesBatch(@RequestParam List<String> codes) {
+        return getCoursesByCodes(codes);
+    }
+    
+    // Same as above with the codes as a JSON array in the body, for lists too long for a URL
+    @PostMapping("/batch")
+    public ResponseEntity<MultiGetResult<String, Course>> postCoursesBatch(@RequestBody List<String> codes) {
+        return getCoursesByCodes(codes);
+    }
+    
+    private ResponseEntity<MultiGetResult<String, Course>> getCoursesByCodes(List<String> codes) {
+        try {
+            return ResponseEntity.ok(courseService.getCoursesByCodes(codes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Create a new course
     @PostMapping
     public ResponseEntity<Course> createCourse(@RequestBody Course course) {
@@ -80,18 +130,42 @@ public class CourseController {
         }
     }
     
-    // Get courses by department
+    // Get courses by department; 304 when the client's copy is current
     @GetMapping("/department/{department}")
-    public ResponseEntity<List<Course>> getCoursesByDepartment(@PathVariable String department) {
+    public ResponseEntity<List<Course>> getCoursesByDepartment(@PathVariable String department, WebRequest request) {
         List<Course> courses = courseService.getCoursesByDepartment(department);
-        return ResponseEntity.ok(courses);
+        return listNotModified(courses, request) ? null : ResponseEntity.ok(courses);
+    }
+    
+    // Get courses by department with only the given fields
+    @GetMapping(value = "/department/{department}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getCourseFieldsByDepartment(@PathVariable String department,
+                                                                                @RequestParam List<String> fields) {
+        return getCourseFields(fields, department, null);
     }
     
-    // Get courses by semester
+    // Get courses by semester; 304 when the client's copy is current
     @GetMapping("/semester/{semester}")
-    public ResponseEntity<List<Course>> getCoursesBySemester(@PathVariable String semester) {
+    public ResponseEntity<List<Course>> getCoursesBySemester(@PathVariable String semester, WebRequest request) {
         List<Course> courses = courseService.getCoursesBySemester(semester);
-        return ResponseEntity.ok(courses);
+        return listNotModified(courses, request) ? null : ResponseEntity.ok(courses);
+    }
+    
+    // Get courses by semester with only the given fields
+    @GetMapping(value = "/semester/{semester}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getCourseFieldsBySemester(@PathVariable String semester,
+                                                                              @RequestParam List<String> fields) {
+        return getCourseFields(fields, null, semester);
+    }
+    
+    private ResponseEntity<List<Map<String, Object>>> getCourseFields(List<String> fields, String department,
+                                                                      String semester) {
+        try {
+            return ResponseEntity.ok(courseService.getCourseFields(fields, department, semester));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // The repository proxy reports an unknown field as InvalidDataAccessApiUsageException
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Search courses by title
@@ -108,4 +182,10 @@ public class CourseController {
         List<Course> courses = courseService.getCoursesByCreditsRange(min, max);
         return ResponseEntity.ok(courses);
     }
+    
+    // Check a conditional GET against a list of courses from the catalog cache; versioning them there needs no
+    // query and always matches the cached body
+    private static boolean listNotModified(List<Course> courses, WebRequest request) {
+        return ConditionalRequests.notModified(ResourceVersion.ofCourses(courses), request);
+    }
 }
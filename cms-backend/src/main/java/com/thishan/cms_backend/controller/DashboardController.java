@@ -0,0 +1,25 @@
+package com.thishan.cms_backend.controller;
+
+import com.thishan.cms_backend.dto.DashboardSummary;
+import com.thishan.cms_backend.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/dashboard")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:3000"}) // Allow Angular frontend
+public class DashboardController {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    // Get dashboard totals, per-status counts and recent enrollments
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummary> getSummary(@RequestParam(defaultValue = "30") int recentDays) {
+        if (recentDays < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(dashboardService.getSummary(recentDays));
+    }
+}
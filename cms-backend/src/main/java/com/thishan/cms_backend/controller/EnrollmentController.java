@@ -1,15 +1,35 @@
 package com.thishan.cms_backend.controller;
 
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.dto.BulkGradeRow;
+import com.thishan.cms_backend.dto.BulkResult;
+import com.thishan.cms_backend.dto.CourseEnrollmentCounts;
+import com.thishan.cms_backend.dto.CursorPage;
+import com.thishan.cms_backend.dto.EnrollmentSummary;
+import com.thishan.cms_backend.dto.MultiGetResult;
+import com.thishan.cms_backend.dto.ResourceVersion;
+import com.thishan.cms_backend.dto.StatusTransitionResult;
 import com.thishan.cms_backend.entity.Enrollment;
 import com.thishan.cms_backend.entity.Student;
 import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.service.EnrollmentCounterService;
+import com.thishan.cms_backend.service.EnrollmentExportService;
 import com.thishan.cms_backend.service.EnrollmentService;
+import com.thishan.cms_backend.service.EnrollmentStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,6 +40,15 @@ public class EnrollmentController {
     @Autowired
     private EnrollmentService enrollmentService;
     
+    @Autowired
+    private EnrollmentExportService enrollmentExportService;
+    
+    @Autowired
+    private EnrollmentCounterService enrollmentCounterService;
+    
+    @Autowired
+    private EnrollmentStreamService enrollmentStreamService;
+    
     // Get all enrollments
     @GetMapping
     public ResponseEntity<List<Enrollment>> getAllEnrollments() {
@@ -27,9 +56,146 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollments);
     }
     
-    // Get enrollment by ID
+    // Get all enrollments with only the given fields, e.g. ?fields=status,grade,student.studentId,course.code,course.title
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllEnrollmentFields(@RequestParam List<String> fields) {
+        return getEnrollmentFields(fields, null, null);
+    }
+    
+    // Get all enrollments as lean list-view rows; 304 when the client's copy is current
+    @GetMapping("/summary")
+    public ResponseEntity<List<EnrollmentSummary>> getAllEnrollmentSummaries(WebRequest request) {
+        ResourceVersion version = enrollmentService.getAllEnrollmentSummariesVersion();
+        if (ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
+        return ResponseEntity.ok(enrollmentService.getAllEnrollmentSummaries());
+    }
+    
+    // Get a page of enrollments using an ID cursor, e.g. ?size=50&afterId=120&status=ENROLLED
+    @GetMapping(params = "size")
+    public ResponseEntity<CursorPage<Enrollment>> getEnrollmentsPage(
+            @RequestParam int size,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String semester,
+            @RequestParam(required = false) String academicYear) {
+        Enrollment.EnrollmentStatus enrollmentStatus = null;
+        if (status != null) {
+            try {
+                enrollmentStatus = Enrollment.EnrollmentStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        CursorPage<Enrollment> page = enrollmentService.getEnrollmentsPage(
+                afterId, size, enrollmentStatus, semester, academicYear);
+        return ResponseEntity.ok(page);
+    }
+    
+    // Get a page of enrollments with only the given fields, e.g. ?size=50&fields=status,course.code; rows always have the ID
+    @GetMapping(params = {"size", "fields"})
+    public ResponseEntity<CursorPage<Map<String, Object>>> getEnrollmentFieldsPage(
+            @RequestParam int size,
+            @RequestParam List<String> fields,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String semester,
+            @RequestParam(required = false) String academicYear) {
+        try {
+            Enrollment.EnrollmentStatus enrollmentStatus = status != null
+                    ? Enrollment.EnrollmentStatus.valueOf(status.toUpperCase()) : null;
+            return ResponseEntity.ok(enrollmentService.getEnrollmentFieldsPage(
+                    fields, afterId, size, enrollmentStatus, semester, academicYear));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // The repository proxy reports an unknown field as InvalidDataAccessApiUsageException
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Export enrollments as CSV or NDJSON, streamed row by row
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String semester,
+            @RequestParam(required = false) String academicYear) {
+        EnrollmentExportService.ExportFormat exportFormat;
+        Enrollment.EnrollmentStatus enrollmentStatus = null;
+        try {
+            exportFormat = EnrollmentExportService.ExportFormat.valueOf(format.toUpperCase());
+            if (status != null) {
+                enrollmentStatus = Enrollment.EnrollmentStatus.valueOf(status.toUpperCase());
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Enrollment.EnrollmentStatus statusFilter = enrollmentStatus;
+        StreamingResponseBody body = out -> enrollmentExportService.exportEnrollments(
+                out, exportFormat, statusFilter, semester, academicYear);
+        
+        boolean csv = exportFormat == EnrollmentExportService.ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"enrollments." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+    
+    // Stream enrollment changes as Server-Sent Events, optionally for one course and/or student
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEnrollments(
+            @RequestParam(required = false) String courseCode,
+            @RequestParam(required = false) String studentId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long resumeFrom = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeFrom = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Not one of ours; the stream starts with a reset event
+                resumeFrom = -1L;
+            }
+        }
+        try {
+            SseEmitter emitter = enrollmentStreamService.subscribe(courseCode, studentId, resumeFrom);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+    
+    // Get enrollments by a list of IDs in request order, e.g. ?ids=3,8,5; unknown IDs are listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<MultiGetResult<Long, Enrollment>> getEnrollmentsBatch(@RequestParam List<Long> ids) {
+        return getEnrollmentsByIds(ids);
+    }
+    
+    // Same as above with the IDs as a JSON array in the body, for lists too long for a URL
+    @PostMapping("/batch")
+    public ResponseEntity<MultiGetResult<Long, Enrollment>> postEnrollmentsBatch(@RequestBody List<Long> ids) {
+        return getEnrollmentsByIds(ids);
+    }
+    
+    private ResponseEntity<MultiGetResult<Long, Enrollment>> getEnrollmentsByIds(List<Long> ids) {
+        try {
+            return ResponseEntity.ok(enrollmentService.getEnrollmentsByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get enrollment by ID; 304 when the client's copy is current
     @GetMapping("/{id}")
-    public ResponseEntity<Enrollment> getEnrollmentById(@PathVariable Long id) {
+    public ResponseEntity<Enrollment> getEnrollmentById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = enrollmentService.getEnrollmentVersion(id);
+        if (version.exists() && ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
         Optional<Enrollment> enrollment = enrollmentService.getEnrollmentById(id);
         if (enrollment.isPresent()) {
             return ResponseEntity.ok(enrollment.get());
@@ -45,6 +211,24 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollments);
     }
     
+    // Get enrollments by student ID with only the given fields
+    @GetMapping(value = "/student/{studentId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getEnrollmentFieldsByStudentId(@PathVariable String studentId,
+                                                                                   @RequestParam List<String> fields) {
+        return getEnrollmentFields(fields, studentId, null);
+    }
+    
+    // Get enrollment summaries by student ID; 304 when the client's copy is current
+    @GetMapping("/student/{studentId}/summary")
+    public ResponseEntity<List<EnrollmentSummary>> getEnrollmentSummariesByStudentId(
+            @PathVariable String studentId, WebRequest request) {
+        ResourceVersion version = enrollmentService.getEnrollmentSummariesVersionByStudentId(studentId);
+        if (ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
+        return ResponseEntity.ok(enrollmentService.getEnrollmentSummariesByStudentId(studentId));
+    }
+    
     // Get enrollments by course code
     @GetMapping("/course/{courseCode}")
     public ResponseEntity<List<Enrollment>> getEnrollmentsByCourseCode(@PathVariable String courseCode) {
@@ -52,6 +236,34 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollments);
     }
     
+    // Get enrollments by course code with only the given fields
+    @GetMapping(value = "/course/{courseCode}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getEnrollmentFieldsByCourseCode(@PathVariable String courseCode,
+                                                                                    @RequestParam List<String> fields) {
+        return getEnrollmentFields(fields, null, courseCode);
+    }
+    
+    private ResponseEntity<List<Map<String, Object>>> getEnrollmentFields(List<String> fields, String studentId,
+                                                                          String courseCode) {
+        try {
+            return ResponseEntity.ok(enrollmentService.getEnrollmentFields(fields, studentId, courseCode));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // The repository proxy reports an unknown field as InvalidDataAccessApiUsageException
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get enrollment summaries (a course roster) by course code; 304 when the client's copy is current
+    @GetMapping("/course/{courseCode}/summary")
+    public ResponseEntity<List<EnrollmentSummary>> getEnrollmentSummariesByCourseCode(
+            @PathVariable String courseCode, WebRequest request) {
+        ResourceVersion version = enrollmentService.getEnrollmentSummariesVersionByCourseCode(courseCode);
+        if (ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
+        return ResponseEntity.ok(enrollmentService.getEnrollmentSummariesByCourseCode(courseCode));
+    }
+    
     // Create a new enrollment
     @PostMapping
     public ResponseEntity<Enrollment> createEnrollment(@RequestBody EnrollmentRequest request) {
@@ -68,6 +280,17 @@ public class EnrollmentController {
         }
     }
     
+    // Create many enrollments in one request; failures are reported per row
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> createEnrollments(@RequestBody List<BulkEnrollmentRow> rows) {
+        try {
+            BulkResult result = enrollmentService.createEnrollments(rows);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Update enrollment status
     @PutMapping("/{id}/status")
     public ResponseEntity<Enrollment> updateEnrollmentStatus(
@@ -92,6 +315,31 @@ public class EnrollmentController {
         }
     }
     
+    // Apply grades for many enrollments in one request; failures are reported per row
+    @PutMapping("/grades")
+    public ResponseEntity<BulkResult> updateEnrollmentGrades(@RequestBody List<BulkGradeRow> rows) {
+        try {
+            BulkResult result = enrollmentService.updateEnrollmentGrades(rows);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Move all ENROLLED/IN_PROGRESS (or the given fromStatuses) enrollments of a course and/or term to a new status
+    @PutMapping("/status")
+    public ResponseEntity<StatusTransitionResult> transitionEnrollmentStatus(@RequestBody StatusTransitionRequest request) {
+        try {
+            StatusTransitionResult result = enrollmentService.transitionEnrollmentStatus(request.getFromStatuses(),
+                    request.getStatus(), request.getCourseCode(), request.getSemester(), request.getAcademicYear());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // Delete an enrollment
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEnrollment(@PathVariable Long id) {
@@ -143,6 +391,12 @@ public class EnrollmentController {
         return ResponseEntity.ok(count);
     }
     
+    // Get enrollment counts, total and per status, for every course at once
+    @GetMapping("/counts")
+    public ResponseEntity<List<CourseEnrollmentCounts>> getEnrollmentCounts() {
+        return ResponseEntity.ok(enrollmentCounterService.getAllCounts());
+    }
+    
     // Check if student is enrolled in course
     @GetMapping("/check")
     public ResponseEntity<Boolean> checkEnrollment(
@@ -179,6 +433,29 @@ public class EnrollmentController {
         public void setStatus(Enrollment.EnrollmentStatus status) { this.status = status; }
     }
     
+    public static class StatusTransitionRequest {
+        private List<Enrollment.EnrollmentStatus> fromStatuses;
+        private Enrollment.EnrollmentStatus status;
+        private String courseCode;
+        private String semester;
+        private String academicYear;
+        
+        public List<Enrollment.EnrollmentStatus> getFromStatuses() { return fromStatuses; }
+        public void setFromStatuses(List<Enrollment.EnrollmentStatus> fromStatuses) { this.fromStatuses = fromStatuses; }
+        
+        public Enrollment.EnrollmentStatus getStatus() { return status; }
+        public void setStatus(Enrollment.EnrollmentStatus status) { this.status = status; }
+        
+        public String getCourseCode() { return courseCode; }
+        public void setCourseCode(String courseCode) { this.courseCode = courseCode; }
+        
+        public String getSemester() { return semester; }
+        public void setSemester(String semester) { this.semester = semester; }
+        
+        public String getAcademicYear() { return academicYear; }
+        public void setAcademicYear(String academicYear) { this.academicYear = academicYear; }
+    }
+    
     public static class GradeUpdateRequest {
         private String grade;
         
@@ -0,0 +1,43 @@
+package com.thishan.cms_backend.controller;
+
+import com.thishan.cms_backend.dto.SearchPage;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/search")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:3000"}) // Allow Angular frontend
+public class SearchController {
+    
+    @Autowired
+    private SearchService searchService;
+    
+    // Ranked, paged student search by name, student ID or email
+    @GetMapping("/students")
+    public ResponseEntity<SearchPage<Student>> searchStudents(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!searchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(searchService.searchStudents(q, page, size));
+    }
+    
+    // Ranked, paged course search by code, title or description
+    @GetMapping("/courses")
+    public ResponseEntity<SearchPage<Course>> searchCourses(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!searchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(searchService.searchCourses(q, page, size));
+    }
+}
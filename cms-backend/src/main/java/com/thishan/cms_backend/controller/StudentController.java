@@ -1,13 +1,20 @@
 package com.thishan.cms_backend.controller;
 
+import com.thishan.cms_backend.dto.MultiGetResult;
+import com.thishan.cms_backend.dto.ResourceVersion;
+import com.thishan.cms_backend.dto.Transcript;
 import com.thishan.cms_backend.entity.Student;
 import com.thishan.cms_backend.service.StudentService;
+import com.thishan.cms_backend.service.TranscriptService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -18,16 +25,33 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
     
-    // Get all students
+    @Autowired
+    private TranscriptService transcriptService;
+    
+    // Get all students; 304 when the client's copy is current
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
+    public ResponseEntity<List<Student>> getAllStudents(WebRequest request) {
+        ResourceVersion version = studentService.getStudentsVersion();
+        if (ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
         List<Student> students = studentService.getAllStudents();
         return ResponseEntity.ok(students);
     }
     
-    // Get student by ID
+    // Get all students with only the given fields, e.g. ?fields=studentId,firstName,lastName
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllStudentFields(@RequestParam List<String> fields) {
+        return getStudentFields(fields, null);
+    }
+    
+    // Get student by ID; 304 when the client's copy is current
     @GetMapping("/{id}")
-    public ResponseEntity<Student> getStudentById(@PathVariable Long id) {
+    public ResponseEntity<Student> getStudentById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = studentService.getStudentVersion(id);
+        if (version.exists() && ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
         Optional<Student> student = studentService.getStudentById(id);
         if (student.isPresent()) {
             return ResponseEntity.ok(student.get());
@@ -36,9 +60,33 @@ public class StudentController {
         }
     }
     
-    // Get student by student ID
+    // Get students by a list of student IDs in request order, e.g. ?studentIds=S001,S002; unknown IDs are listed as missing
+    @GetMapping("/batch")
+    public ResponseEntity<MultiGetResult<String, Student>> getStudentsBatch(@RequestParam List<String> studentIds) {
+        return getStudentsByStudentIds(studentIds);
+    }
+    
+    // Same as above with the IDs as a JSON array in the body, for lists too long for a URL
+    @PostMapping("/batch")
+    public ResponseEntity<MultiGetResult<String, Student>> postStudentsBatch(@RequestBody List<String> studentIds) {
+        return getStudentsByStudentIds(studentIds);
+    }
+    
+    private ResponseEntity<MultiGetResult<String, Student>> getStudentsByStudentIds(List<String> studentIds) {
+        try {
+            return ResponseEntity.ok(studentService.getStudentsByStudentIds(studentIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get student by student ID; 304 when the client's copy is current
     @GetMapping("/studentId/{studentId}")
-    public ResponseEntity<Student> getStudentByStudentId(@PathVariable String studentId) {
+    public ResponseEntity<Student> getStudentByStudentId(@PathVariable String studentId, WebRequest request) {
+        ResourceVersion version = studentService.getStudentVersionByStudentId(studentId);
+        if (version.exists() && ConditionalRequests.notModified(version, request)) {
+            return null;
+        }
         Optional<Student> student = studentService.getStudentByStudentId(studentId);
         if (student.isPresent()) {
             return ResponseEntity.ok(student.get());
@@ -47,6 +95,16 @@ public class StudentController {
         }
     }
     
+    // Get a student's transcript: credits and GPA per term and overall
+    @GetMapping("/studentId/{studentId}/transcript")
+    public ResponseEntity<Transcript> getTranscript(@PathVariable String studentId) {
+        try {
+            return ResponseEntity.ok(transcriptService.getTranscript(studentId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     // Get student by email
     @GetMapping("/email/{email}")
     public ResponseEntity<Student> getStudentByEmail(@PathVariable String email) {
@@ -98,6 +156,22 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
     
+    // Get students by department with only the given fields
+    @GetMapping(value = "/department/{department}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getStudentFieldsByDepartment(@PathVariable String department,
+                                                                                 @RequestParam List<String> fields) {
+        return getStudentFields(fields, department);
+    }
+    
+    private ResponseEntity<List<Map<String, Object>>> getStudentFields(List<String> fields, String department) {
+        try {
+            return ResponseEntity.ok(studentService.getStudentFields(fields, department));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // The repository proxy reports an unknown field as InvalidDataAccessApiUsageException
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get students by year of study
     @GetMapping("/year/{year}")
     public ResponseEntity<List<Student>> getStudentsByYearOfStudy(@PathVariable Integer year) {
@@ -0,0 +1,52 @@
+package com.thishan.cms_backend.dto;
+
+public class BulkEnrollmentRow {
+    
+    private String studentId;
+    private String courseCode;
+    private String semester;
+    private String academicYear;
+    
+    // Constructors
+    public BulkEnrollmentRow() {}
+    
+    public BulkEnrollmentRow(String studentId, String courseCode, String semester, String academicYear) {
+        this.studentId = studentId;
+        this.courseCode = courseCode;
+        this.semester = semester;
+        this.academicYear = academicYear;
+    }
+    
+    // Getters and Setters
+    public String getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getCourseCode() {
+        return courseCode;
+    }
+    
+    public void setCourseCode(String courseCode) {
+        this.courseCode = courseCode;
+    }
+    
+    public String getSemester() {
+        return semester;
+    }
+    
+    public void setSemester(String semester) {
+        this.semester = semester;
+    }
+    
+    public String getAcademicYear() {
+        return academicYear;
+    }
+    
+    public void setAcademicYear(String academicYear) {
+        this.academicYear = academicYear;
+    }
+}
@@ -0,0 +1,32 @@
+package com.thishan.cms_backend.dto;
+
+public class BulkGradeRow {
+    
+    private Long enrollmentId;
+    private String grade;
+    
+    // Constructors
+    public BulkGradeRow() {}
+    
+    public BulkGradeRow(Long enrollmentId, String grade) {
+        this.enrollmentId = enrollmentId;
+        this.grade = grade;
+    }
+    
+    // Getters and Setters
+    public Long getEnrollmentId() {
+        return enrollmentId;
+    }
+    
+    public void setEnrollmentId(Long enrollmentId) {
+        this.enrollmentId = enrollmentId;
+    }
+    
+    public String getGrade() {
+        return grade;
+    }
+    
+    public void setGrade(String grade) {
+        this.grade = grade;
+    }
+}
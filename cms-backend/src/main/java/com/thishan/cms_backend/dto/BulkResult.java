@@ -0,0 +1,49 @@
+package com.thishan.cms_backend.dto;
+
+import java.util.List;
+
+public class BulkResult {
+    
+    private int succeeded;
+    private int failed;
+    private List<BulkRowResult> results;
+    
+    // Constructors
+    public BulkResult() {}
+    
+    public BulkResult(List<BulkRowResult> results) {
+        this.results = results;
+        for (BulkRowResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+    
+    // Getters and Setters
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<BulkRowResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<BulkRowResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,63 @@
+package com.thishan.cms_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRowResult {
+    
+    private int index;
+    private boolean success;
+    private Long id;
+    private String error;
+    
+    // Constructors
+    public BulkRowResult() {}
+    
+    public BulkRowResult(int index, boolean success, Long id, String error) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.error = error;
+    }
+    
+    public static BulkRowResult succeeded(int index, Long id) {
+        return new BulkRowResult(index, true, id, null);
+    }
+    
+    public static BulkRowResult failed(int index, String error) {
+        return new BulkRowResult(index, false, null, error);
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.thishan.cms_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * One record of the change log: a course, student or enrollment was created, updated
+ * or deleted. The payload is the entity's JSON state after the write (before it, for
+ * deletions). Events are published at least once; a consumer that has seen an eventId
+ * can skip later copies of it.
+ */
+public record ChangeEvent(
+        long offset,
+        long eventId,
+        String aggregateType,
+        long aggregateId,
+        String eventType,
+        LocalDateTime occurredAt,
+        @JsonRawValue String payload) {
+}
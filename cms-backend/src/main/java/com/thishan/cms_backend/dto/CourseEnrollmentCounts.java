@@ -0,0 +1,9 @@
+package com.thishan.cms_backend.dto;
+
+import java.util.Map;
+
+/**
+ * Enrollment counts of one course, total and per status (every status is present).
+ * Read from the materialized counters rather than counted from the enrollments.
+ */
+public record CourseEnrollmentCounts(Long courseId, String courseCode, long total, Map<String, Long> byStatus) {}
@@ -0,0 +1,15 @@
+package com.thishan.cms_backend.dto;
+
+/**
+ * Seats of one course, read from the courses table on every request. Kept out of the
+ * course JSON: the count changes with every enrollment, and would keep the cached
+ * catalog from ever being current. seatsLeft is null when the course has no capacity.
+ */
+public record CourseSeats(Long courseId, String courseCode, Integer capacity, int enrolledCount, Integer seatsLeft) {
+    
+    // Used by JPQL constructor expressions
+    public CourseSeats(Long courseId, String courseCode, Integer capacity, int enrolledCount) {
+        this(courseId, courseCode, capacity, enrolledCount,
+                capacity == null ? null : Math.max(capacity - enrolledCount, 0));
+    }
+}
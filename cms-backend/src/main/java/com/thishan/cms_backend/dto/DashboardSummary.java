@@ -0,0 +1,74 @@
+package com.thishan.cms_backend.dto;
+
+import java.util.Map;
+
+public class DashboardSummary {
+    
+    private long totalCourses;
+    private long totalStudents;
+    private long totalEnrollments;
+    private long successfulEnrollments;
+    private long recentEnrollments;
+    private int recentDays;
+    private Map<String, Long> enrollmentsByStatus;
+    
+    // Constructors
+    public DashboardSummary() {}
+    
+    // Getters and Setters
+    public long getTotalCourses() {
+        return totalCourses;
+    }
+    
+    public void setTotalCourses(long totalCourses) {
+        this.totalCourses = totalCourses;
+    }
+    
+    public long getTotalStudents() {
+        return totalStudents;
+    }
+    
+    public void setTotalStudents(long totalStudents) {
+        this.totalStudents = totalStudents;
+    }
+    
+    public long getTotalEnrollments() {
+        return totalEnrollments;
+    }
+    
+    public void setTotalEnrollments(long totalEnrollments) {
+        this.totalEnrollments = totalEnrollments;
+    }
+    
+    public long getSuccessfulEnrollments() {
+        return successfulEnrollments;
+    }
+    
+    public void setSuccessfulEnrollments(long successfulEnrollments) {
+        this.successfulEnrollments = successfulEnrollments;
+    }
+    
+    public long getRecentEnrollments() {
+        return recentEnrollments;
+    }
+    
+    public void setRecentEnrollments(long recentEnrollments) {
+        this.recentEnrollments = recentEnrollments;
+    }
+    
+    public int getRecentDays() {
+        return recentDays;
+    }
+    
+    public void setRecentDays(int recentDays) {
+        this.recentDays = recentDays;
+    }
+    
+    public Map<String, Long> getEnrollmentsByStatus() {
+        return enrollmentsByStatus;
+    }
+    
+    public void setEnrollmentsByStatus(Map<String, Long> enrollmentsByStatus) {
+        this.enrollmentsByStatus = enrollmentsByStatus;
+    }
+}
@@ -0,0 +1,37 @@
+package com.thishan.cms_backend.dto;
+
+import com.thishan.cms_backend.entity.Enrollment;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an enrollment carried by its change events. The student and course are
+ * referred to by ID, so the state can be taken from an enrollment whose associations
+ * are not loaded, or selected after a set-based UPDATE without joining them.
+ */
+public record EnrollmentChange(
+        Long id,
+        Ref student,
+        Ref course,
+        Enrollment.EnrollmentStatus status,
+        String grade,
+        String semester,
+        String academicYear,
+        LocalDateTime enrollmentDate,
+        LocalDateTime updatedAt) {
+    
+    public record Ref(Long id) {}
+    
+    // Flat constructor used by the repository's JPQL constructor expressions
+    public EnrollmentChange(Long id, Long studentId, Long courseId, Enrollment.EnrollmentStatus status, String grade,
+                            String semester, String academicYear, LocalDateTime enrollmentDate, LocalDateTime updatedAt) {
+        this(id, new Ref(studentId), new Ref(courseId), status, grade, semester, academicYear, enrollmentDate, updatedAt);
+    }
+    
+    // State of an enrollment entity; reading the IDs of its student and course does not load them
+    public static EnrollmentChange of(Enrollment enrollment) {
+        return new EnrollmentChange(enrollment.getId(), enrollment.getStudent().getId(), enrollment.getCourse().getId(),
+                enrollment.getStatus(), enrollment.getGrade(), enrollment.getSemester(), enrollment.getAcademicYear(),
+                enrollment.getEnrollmentDate(), enrollment.getUpdatedAt());
+    }
+}
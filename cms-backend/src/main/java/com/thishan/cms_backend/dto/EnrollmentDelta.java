@@ -0,0 +1,18 @@
+package com.thishan.cms_backend.dto;
+
+import com.thishan.cms_backend.entity.Enrollment;
+
+/**
+ * Data of an enrollment stream event: the enrollment's fields after a create or update,
+ * or before a delete, with its student and course by the keys the rest of the API uses.
+ * The change itself (created, updated or deleted) is the SSE event name.
+ */
+public record EnrollmentDelta(
+        Long id,
+        String studentId,
+        String courseCode,
+        Enrollment.EnrollmentStatus status,
+        String grade,
+        String semester,
+        String academicYear) {
+}
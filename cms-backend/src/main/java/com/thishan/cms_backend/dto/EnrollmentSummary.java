@@ -0,0 +1,33 @@
+package com.thishan.cms_backend.dto;
+
+import com.thishan.cms_backend.entity.Enrollment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only enrollment row for list views. Built directly from a JPQL
+ * constructor expression, so only these columns are selected and no
+ * managed entities are created.
+ */
+public record EnrollmentSummary(
+        Long id,
+        StudentRef student,
+        CourseRef course,
+        Enrollment.EnrollmentStatus status,
+        String grade,
+        String semester,
+        String academicYear,
+        LocalDateTime enrollmentDate) {
+    
+    public record StudentRef(String studentId, String firstName, String lastName) {}
+    
+    public record CourseRef(String code, String title) {}
+    
+    // Flat constructor used by the repository's JPQL constructor expressions
+    public EnrollmentSummary(Long id, String studentId, String firstName, String lastName,
+                             String courseCode, String courseTitle, Enrollment.EnrollmentStatus status,
+                             String grade, String semester, String academicYear, LocalDateTime enrollmentDate) {
+        this(id, new StudentRef(studentId, firstName, lastName), new CourseRef(courseCode, courseTitle),
+                status, grade, semester, academicYear, enrollmentDate);
+    }
+}
@@ -0,0 +1,44 @@
+package com.thishan.cms_backend.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Result of a multi-get: the entities found, in the order their keys were requested, and
+ * the requested keys that matched nothing, also in request order. A key requested twice
+ * is looked up and returned once.
+ */
+public record MultiGetResult<K, T>(List<T> items, List<K> missing) {
+    
+    // Most keys accepted by one multi-get
+    public static final int MAX_KEYS = 1000;
+    
+    // The distinct keys of a request in request order; rejects empty and oversized requests
+    public static <K> List<K> distinctKeys(List<K> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one key is required");
+        }
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinct.remove(null);
+        if (distinct.size() > MAX_KEYS) {
+            throw new IllegalArgumentException("At most " + MAX_KEYS + " keys can be fetched at once");
+        }
+        return distinct;
+    }
+    
+    // Pair keys with entities loaded in the same order, where null means the key was not found
+    public static <K, T> MultiGetResult<K, T> of(List<K> keys, List<T> loaded) {
+        List<T> items = new ArrayList<>(keys.size());
+        List<K> missing = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            T item = loaded.get(i);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(keys.get(i));
+            }
+        }
+        return new MultiGetResult<>(items, missing);
+    }
+}
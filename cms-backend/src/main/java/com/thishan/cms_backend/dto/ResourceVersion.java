@@ -0,0 +1,61 @@
+package com.thishan.cms_backend.dto;
+
+import com.thishan.cms_backend.entity.Course;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+/**
+ * Version of a resource or list for conditional GETs: the number of rows, the latest
+ * updatedAt among them and an optional checksum of what else identifies the rows (the
+ * IDs of cached courses). Built by aggregate queries or from cached entities, so an ETag
+ * can be checked without loading or serializing the rows.
+ */
+public record ResourceVersion(Long count, LocalDateTime lastModified, Long checksum) {
+    
+    // Used by JPQL constructor expressions over a single timestamped entity
+    public ResourceVersion(Long count, LocalDateTime lastModified) {
+        this(count, lastModified, null);
+    }
+    
+    // Used by JPQL constructor expressions over rows that join three timestamped entities
+    public ResourceVersion(Long count, LocalDateTime first, LocalDateTime second, LocalDateTime third) {
+        this(count, latest(latest(first, second), third), null);
+    }
+    
+    // Version of course entities held in the catalog cache
+    public static ResourceVersion ofCourses(Collection<Course> courses) {
+        LocalDateTime lastModified = null;
+        long checksum = 0;
+        for (Course course : courses) {
+            lastModified = latest(lastModified, course.getUpdatedAt());
+            checksum = checksum * 31 + course.getId();
+        }
+        return new ResourceVersion((long) courses.size(), lastModified, checksum);
+    }
+    
+    // Whether any row was counted; a single-entity version with no rows means the entity does not exist
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+    
+    // Strong ETag of the JSON representation
+    public String etag() {
+        return etag(null);
+    }
+    
+    // Strong ETag of a representation (null for JSON): changes whenever the count, the latest timestamp
+    // (to the microsecond) or the checksum does, and differs between representations of the same version
+    public String etag(String representation) {
+        long micros = lastModified == null ? 0
+                : ChronoUnit.MICROS.between(LocalDateTime.of(2000, 1, 1, 0, 0), lastModified);
+        return "\"" + Long.toString(count != null ? count : 0, 36) + "-" + Long.toString(micros, 36) + "-"
+                + Long.toHexString(checksum != null ? checksum : 0)
+                + (representation != null ? "-" + representation : "") + "\"";
+    }
+    
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,54 @@
+package com.thishan.cms_backend.dto;
+
+import java.util.List;
+
+public class SearchPage<T> {
+    
+    private List<T> items;
+    private int page;
+    private int size;
+    private long totalHits;
+    
+    // Constructors
+    public SearchPage() {}
+    
+    public SearchPage(List<T> items, int page, int size, long totalHits) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public long getTotalHits() {
+        return totalHits;
+    }
+    
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+}
@@ -0,0 +1,44 @@
+package com.thishan.cms_backend.dto;
+
+import com.thishan.cms_backend.entity.Enrollment;
+
+public class StatusTransitionResult {
+    
+    private Enrollment.EnrollmentStatus status;
+    private int updated;
+    private int chunks;
+    
+    // Constructors
+    public StatusTransitionResult() {}
+    
+    public StatusTransitionResult(Enrollment.EnrollmentStatus status, int updated, int chunks) {
+        this.status = status;
+        this.updated = updated;
+        this.chunks = chunks;
+    }
+    
+    // Getters and Setters
+    public Enrollment.EnrollmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Enrollment.EnrollmentStatus status) {
+        this.status = status;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getChunks() {
+        return chunks;
+    }
+    
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+}
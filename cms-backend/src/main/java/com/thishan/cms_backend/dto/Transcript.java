@@ -0,0 +1,23 @@
+package com.thishan.cms_backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A student's credits and GPA per term and overall, read from the maintained
+ * term aggregates rather than from the enrollments. GPA is null until the
+ * student has a grade that counts towards it.
+ */
+public record Transcript(
+        String studentId,
+        String firstName,
+        String lastName,
+        int attemptedCredits,
+        int earnedCredits,
+        BigDecimal qualityPoints,
+        BigDecimal gpa,
+        List<Term> terms) {
+    
+    public record Term(String semester, String academicYear, int attemptedCredits, int earnedCredits,
+                       BigDecimal qualityPoints, BigDecimal gpa) {}
+}
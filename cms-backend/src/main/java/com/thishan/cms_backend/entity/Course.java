@@ -1,16 +1,27 @@
 package com.thishan.cms_backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.thishan.cms_backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "courses")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.COURSE_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.COURSE_BY_CODE_REGION)
 public class Course {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Mutable: a course's code can be changed by updateCourse
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false, length = 10)
     private String code;
     
@@ -29,6 +40,18 @@ public class Course {
     @Column(length = 50)
     private String department;
     
+    // Maximum number of seats, null means unlimited
+    @Column
+    private Integer capacity;
+    
+    // Seats held by enrollments that are not DROPPED; only changed by the conditional UPDATE statements
+    // in CourseSeatRepositoryImpl, which keep the cached copy of the course in step. Not part of the course
+    // JSON, so seat changes leave the catalog cache alone; clients read it as CourseSeats
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false)
+    private int enrolledCount;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -116,6 +139,22 @@ public class Course {
         this.department = department;
     }
     
+    public Integer getCapacity() {
+        return capacity;
+    }
+    
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+    
+    public int getEnrolledCount() {
+        return enrolledCount;
+    }
+    
+    public void setEnrolledCount(int enrolledCount) {
+        this.enrolledCount = enrolledCount;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -141,6 +180,7 @@ public class Course {
                 ", credits=" + credits +
                 ", semester='" + semester + '\'' +
                 ", department='" + department + '\'' +
+                ", capacity=" + capacity +
                 '}';
     }
 }
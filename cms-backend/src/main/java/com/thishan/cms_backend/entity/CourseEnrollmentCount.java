@@ -0,0 +1,96 @@
+package com.thishan.cms_backend.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+// Maintained by EnrollmentCounterService; keep in sync with the Flyway migrations in db/migration
+@Table(name = "course_enrollment_counts")
+@IdClass(CourseEnrollmentCount.Key.class)
+public class CourseEnrollmentCount {
+    
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Enrollment.EnrollmentStatus status;
+    
+    @Column(name = "enrollment_count", nullable = false)
+    private long enrollmentCount;
+    
+    // Composite primary key
+    public static class Key implements Serializable {
+        
+        private Long courseId;
+        private Enrollment.EnrollmentStatus status;
+        
+        public Key() {}
+        
+        public Key(Long courseId, Enrollment.EnrollmentStatus status) {
+            this.courseId = courseId;
+            this.status = status;
+        }
+        
+        public Long getCourseId() {
+            return courseId;
+        }
+        
+        public Enrollment.EnrollmentStatus getStatus() {
+            return status;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(courseId, other.courseId) && status == other.status;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(courseId, status);
+        }
+    }
+    
+    // Constructors
+    public CourseEnrollmentCount() {}
+    
+    public CourseEnrollmentCount(Long courseId, Enrollment.EnrollmentStatus status, long enrollmentCount) {
+        this.courseId = courseId;
+        this.status = status;
+        this.enrollmentCount = enrollmentCount;
+    }
+    
+    // Getters and Setters
+    public Long getCourseId() {
+        return courseId;
+    }
+    
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+    
+    public Enrollment.EnrollmentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Enrollment.EnrollmentStatus status) {
+        this.status = status;
+    }
+    
+    public long getEnrollmentCount() {
+        return enrollmentCount;
+    }
+    
+    public void setEnrollmentCount(long enrollmentCount) {
+        this.enrollmentCount = enrollmentCount;
+    }
+}
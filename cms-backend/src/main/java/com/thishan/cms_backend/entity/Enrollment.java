@@ -5,11 +5,24 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "enrollments")
+// Keep in sync with the Flyway migrations in db/migration
+@Table(name = "enrollments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_enrollments_student_course", columnNames = {"student_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_enrollments_course_status", columnList = "course_id, status"),
+    @Index(name = "idx_enrollments_status_term", columnList = "status, semester, academic_year"),
+    @Index(name = "idx_enrollments_term", columnList = "semester, academic_year"),
+    @Index(name = "idx_enrollments_enrollment_date", columnList = "enrollment_date"),
+    @Index(name = "idx_enrollments_grade", columnList = "grade")
+})
 public class Enrollment {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final int GRADE_LENGTH = 5;
+    
+    // Block-allocated IDs let Hibernate batch inserts, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EnrollmentIdGenerator.Pooled
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,7 +42,7 @@ public class Enrollment {
     @Column(nullable = false, length = 20)
     private EnrollmentStatus status;
     
-    @Column(name = "grade", length = 5)
+    @Column(name = "grade", length = GRADE_LENGTH)
     private String grade;
     
     @Column(name = "semester", length = 20)
@@ -0,0 +1,73 @@
+package com.thishan.cms_backend.entity;
+
+import org.hibernate.HibernateException;
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out enrollment IDs in blocks of Enrollment.ID_ALLOCATION_SIZE so Hibernate can
+ * batch the inserts, which IDENTITY prevents. Block n covers the IDs from
+ * n * ID_ALLOCATION_SIZE up to the next block.
+ *
+ * A block number is taken by inserting a row into enrollment_id_blocks on the session's
+ * own connection. Unlike a table generator this never needs a second pooled connection,
+ * and no lock outlives the insert statement: auto-increment values are not reused when
+ * the surrounding transaction rolls back, so the rows can simply stay in the table.
+ */
+public class EnrollmentIdGenerator implements IdentifierGenerator {
+    
+    private static final String NEXT_BLOCK_SQL = "INSERT INTO enrollment_id_blocks (allocated_at) VALUES (CURRENT_TIMESTAMP)";
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private long nextId;
+    private long blockEnd;
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        lock.lock();
+        try {
+            if (nextId == blockEnd) {
+                nextId = nextBlock(session) * Enrollment.ID_ALLOCATION_SIZE;
+                blockEnd = nextId + Enrollment.ID_ALLOCATION_SIZE;
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private long nextBlock(SharedSessionContractImplementor session) {
+        Connection connection = session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection();
+        try (PreparedStatement statement = connection.prepareStatement(NEXT_BLOCK_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new HibernateException("No block number returned by enrollment_id_blocks");
+                }
+                return keys.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not allocate enrollment IDs", NEXT_BLOCK_SQL);
+        }
+    }
+    
+    // Marks the ID property generated by EnrollmentIdGenerator
+    @IdGeneratorType(EnrollmentIdGenerator.class)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.FIELD, ElementType.METHOD})
+    public @interface Pooled {
+    }
+}
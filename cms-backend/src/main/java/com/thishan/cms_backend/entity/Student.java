@@ -1,16 +1,25 @@
 package com.thishan.cms_backend.entity;
 
+import com.thishan.cms_backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "students")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.STUDENT_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.STUDENT_BY_STUDENT_ID_REGION)
 public class Student {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Mutable: a student's ID can be changed by updateStudent
+    @NaturalId(mutable = true)
     @Column(name = "student_id", unique = true, nullable = false, length = 20)
     private String studentId;
     
@@ -0,0 +1,126 @@
+package com.thishan.cms_backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+// Maintained by TranscriptService; keep in sync with the Flyway migrations in db/migration
+@Table(name = "student_term_aggregates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_student_term_aggregates_term", columnNames = {"student_id", "semester", "academic_year"})
+})
+public class StudentTermAggregate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+    
+    @Column(nullable = false, length = 20)
+    private String semester;
+    
+    @Column(name = "academic_year", nullable = false, length = 10)
+    private String academicYear;
+    
+    // Credits of courses with a GPA grade
+    @Column(name = "attempted_credits", nullable = false)
+    private int attemptedCredits;
+    
+    // Credits of courses with a passing grade
+    @Column(name = "earned_credits", nullable = false)
+    private int earnedCredits;
+    
+    // Sum of grade points times credits over the attempted credits
+    @Column(name = "quality_points", nullable = false, precision = 10, scale = 2)
+    private BigDecimal qualityPoints = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public StudentTermAggregate() {}
+    
+    public StudentTermAggregate(Long studentId, String semester, String academicYear,
+                                int attemptedCredits, int earnedCredits, BigDecimal qualityPoints) {
+        this.studentId = studentId;
+        this.semester = semester;
+        this.academicYear = academicYear;
+        this.attemptedCredits = attemptedCredits;
+        this.earnedCredits = earnedCredits;
+        this.qualityPoints = qualityPoints;
+    }
+    
+    // JPA lifecycle methods
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getStudentId() {
+        return studentId;
+    }
+    
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+    
+    public String getSemester() {
+        return semester;
+    }
+    
+    public void setSemester(String semester) {
+        this.semester = semester;
+    }
+    
+    public String getAcademicYear() {
+        return academicYear;
+    }
+    
+    public void setAcademicYear(String academicYear) {
+        this.academicYear = academicYear;
+    }
+    
+    public int getAttemptedCredits() {
+        return attemptedCredits;
+    }
+    
+    public void setAttemptedCredits(int attemptedCredits) {
+        this.attemptedCredits = attemptedCredits;
+    }
+    
+    public int getEarnedCredits() {
+        return earnedCredits;
+    }
+    
+    public void setEarnedCredits(int earnedCredits) {
+        this.earnedCredits = earnedCredits;
+    }
+    
+    public BigDecimal getQualityPoints() {
+        return qualityPoints;
+    }
+    
+    public void setQualityPoints(BigDecimal qualityPoints) {
+        this.qualityPoints = qualityPoints;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,160 @@
+package com.thishan.cms_backend.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports executed statements and the rows they read or changed to
+ * SqlStatementCounter. A JDBC batch counts as one statement; its rows are
+ * the sum of the reported update counts.
+ */
+public class SqlCountingDataSource extends DelegatingDataSource {
+    
+    public SqlCountingDataSource(DataSource target) {
+        super(target);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+    
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+    
+    // Forwards calls to the target, keeping proxy identity for equals/hashCode
+    private abstract static class ForwardingHandler implements InvocationHandler {
+        
+        protected final Object target;
+        
+        ForwardingHandler(Object target) {
+            this.target = target;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            return afterInvoke(method, result);
+        }
+        
+        protected abstract Object afterInvoke(Method method, Object result);
+    }
+    
+    private static class ConnectionHandler extends ForwardingHandler {
+        
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+        
+        @Override
+        protected Object afterInvoke(Method method, Object result) {
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement));
+            }
+            return result;
+        }
+    }
+    
+    private static class StatementHandler extends ForwardingHandler {
+        
+        StatementHandler(Statement target) {
+            super(target);
+        }
+        
+        @Override
+        protected Object afterInvoke(Method method, Object result) {
+            switch (method.getName()) {
+                case "execute":
+                    SqlStatementCounter.statementExecuted(0);
+                    return result;
+                case "executeQuery":
+                    SqlStatementCounter.statementExecuted(0);
+                    return countRows((ResultSet) result);
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    SqlStatementCounter.statementExecuted(((Number) result).longValue());
+                    return result;
+                case "executeBatch":
+                    SqlStatementCounter.statementExecuted(sum((int[]) result));
+                    return result;
+                case "executeLargeBatch":
+                    SqlStatementCounter.statementExecuted(sum((long[]) result));
+                    return result;
+                case "getResultSet":
+                    return countRows((ResultSet) result);
+                default:
+                    return result;
+            }
+        }
+        
+        private static ResultSet countRows(ResultSet resultSet) {
+            return resultSet == null ? null : proxy(ResultSet.class, new ResultSetHandler(resultSet));
+        }
+        
+        // Negative entries are SUCCESS_NO_INFO / EXECUTE_FAILED
+        private static long sum(int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(0, count);
+            }
+            return total;
+        }
+        
+        private static long sum(long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += Math.max(0, count);
+            }
+            return total;
+        }
+    }
+    
+    private static class ResultSetHandler extends ForwardingHandler {
+        
+        ResultSetHandler(ResultSet target) {
+            super(target);
+        }
+        
+        @Override
+        protected Object afterInvoke(Method method, Object result) {
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                SqlStatementCounter.rowRead();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.thishan.cms_backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the SQL statements and rows of each HTTP request as the
+ * http.server.sql.statements and http.server.sql.rows distribution summaries,
+ * tagged with the request method and URI pattern like http.server.requests.
+ * Work done on async threads (streaming exports) is not attributed to a request.
+ */
+@Component
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+    
+    public static final String STATEMENTS_METRIC = "http.server.sql.statements";
+    public static final String ROWS_METRIC = "http.server.sql.rows";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.stop();
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.Counts counts = SqlStatementCounter.stop();
+        if (counts == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        summary(STATEMENTS_METRIC, "statements", request.getMethod(), uri).record(counts.getStatements());
+        summary(ROWS_METRIC, "rows", request.getMethod(), uri).record(counts.getRows());
+    }
+    
+    private DistributionSummary summary(String name, String baseUnit, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.thishan.cms_backend.metrics;
+
+/**
+ * Per-thread counts of the SQL statements executed and rows read or written
+ * between start() and stop(). Fed by SqlCountingDataSource; nothing is
+ * counted on threads that have not called start().
+ */
+public final class SqlStatementCounter {
+    
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+    
+    private SqlStatementCounter() {}
+    
+    public static final class Counts {
+        private long statements;
+        private long rows;
+        
+        public long getStatements() {
+            return statements;
+        }
+        
+        public long getRows() {
+            return rows;
+        }
+    }
+    
+    // Start counting on the current thread, discarding any earlier counts
+    public static void start() {
+        CURRENT.set(new Counts());
+    }
+    
+    // Stop counting on the current thread; null if start() was not called
+    public static Counts stop() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+    
+    static void statementExecuted(long rowsAffected) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+            counts.rows += Math.max(0, rowsAffected);
+        }
+    }
+    
+    static void rowRead() {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.rows++;
+        }
+    }
+}
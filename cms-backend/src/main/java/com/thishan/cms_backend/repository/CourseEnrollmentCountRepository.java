@@ -0,0 +1,51 @@
+package com.thishan.cms_backend.repository;
+
+import com.thishan.cms_backend.entity.CourseEnrollmentCount;
+import com.thishan.cms_backend.entity.Enrollment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CourseEnrollmentCountRepository extends JpaRepository<CourseEnrollmentCount, CourseEnrollmentCount.Key> {
+    
+    // Add to one counter; returns 0 when the course has no counter rows yet
+    @Modifying
+    @Query("UPDATE CourseEnrollmentCount k SET k.enrollmentCount = k.enrollmentCount + :delta " +
+           "WHERE k.courseId = :courseId AND k.status = :status")
+    int addToCount(@Param("courseId") Long courseId,
+                   @Param("status") Enrollment.EnrollmentStatus status,
+                   @Param("delta") long delta);
+    
+    // Recompute the counters of the given courses from the enrollments table; returns the number of rows that were off
+    @Modifying
+    @Query("UPDATE CourseEnrollmentCount k SET k.enrollmentCount = (SELECT COUNT(e) FROM Enrollment e " +
+           "WHERE e.course.id = k.courseId AND e.status = k.status) " +
+           "WHERE k.courseId IN :courseIds AND k.enrollmentCount <> (SELECT COUNT(e) FROM Enrollment e " +
+           "WHERE e.course.id = k.courseId AND e.status = k.status)")
+    int recount(@Param("courseIds") Collection<Long> courseIds);
+    
+    // (course id, code, status, count) for every course in code order; status and count are null for a course without counters
+    @Query("SELECT c.id, c.code, k.status, k.enrollmentCount FROM Course c " +
+           "LEFT JOIN CourseEnrollmentCount k ON k.courseId = c.id ORDER BY c.code")
+    List<Object[]> findAllCounts();
+    
+    // Total enrollments of a course over all statuses; null when the course does not exist
+    @Query("SELECT SUM(k.enrollmentCount) FROM CourseEnrollmentCount k, Course c WHERE c.code = :courseCode AND k.courseId = c.id")
+    Long sumByCourseCode(@Param("courseCode") String courseCode);
+    
+    // Enrollment totals per status over all courses
+    @Query("SELECT k.status, SUM(k.enrollmentCount) FROM CourseEnrollmentCount k GROUP BY k.status")
+    List<Object[]> sumGroupByStatus();
+    
+    // IDs of courses after the given ID that have no counter rows, in ID order
+    @Query("SELECT c.id FROM Course c WHERE c.id > :afterId AND NOT EXISTS " +
+           "(SELECT k FROM CourseEnrollmentCount k WHERE k.courseId = c.id) ORDER BY c.id")
+    List<Long> findCourseIdsWithoutCounts(@Param("afterId") Long afterId, Limit limit);
+}
@@ -1,19 +1,63 @@
 package com.thishan.cms_backend.repository;
 
+import com.thishan.cms_backend.dto.CourseSeats;
+import com.thishan.cms_backend.dto.ResourceVersion;
 import com.thishan.cms_backend.entity.Course;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, NaturalIdLookup, CourseSeatRepository, FieldProjection {
     
-    // Find course by code
-    Optional<Course> findByCode(String code);
+    // Find course by code, through the second-level cache
+    default Optional<Course> findByCode(String code) {
+        return findByNaturalId(Course.class, code);
+    }
+    
+    // Find courses by a list of codes, in the same order with null for unknown codes, through the second-level cache
+    default List<Course> findAllByCodes(List<String> codes) {
+        Map<String, Course> byCode = new HashMap<>();
+        findAllByNaturalIds(Course.class, codes).forEach(course -> byCode.put(course.getCode(), course));
+        return codes.stream().map(byCode::get).toList();
+    }
+    
+    // Version of one course by ID
+    @Query("SELECT new com.thishan.cms_backend.dto.ResourceVersion(COUNT(c), MAX(c.updatedAt)) FROM Course c WHERE c.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+    
+    // Seats of a course by code, read from the table rather than a cache
+    @Query("SELECT new com.thishan.cms_backend.dto.CourseSeats(c.id, c.code, c.capacity, c.enrolledCount) " +
+           "FROM Course c WHERE c.code = :code")
+    Optional<CourseSeats> findSeatsByCode(@Param("code") String code);
+    
+    // Find courses by a set of codes
+    List<Course> findByCodeIn(Collection<String> codes);
+    
+    // Find courses by a set of codes and lock their rows for the current transaction (in ID order)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.code IN :codes ORDER BY c.id")
+    List<Course> findByCodeInForUpdate(@Param("codes") Collection<String> codes);
+    
+    // Find a course by ID and lock its row for the current transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :id")
+    Optional<Course> findByIdForUpdate(@Param("id") Long id);
+    
+    // Find courses by a set of IDs and lock their rows for the current transaction (in ID order)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id IN :ids ORDER BY c.id")
+    List<Course> findByIdInForUpdate(@Param("ids") Collection<Long> ids);
     
     // Find courses by department
     List<Course> findByDepartment(String department);
@@ -24,6 +68,13 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // Find courses by department and semester
     List<Course> findByDepartmentAndSemester(String department, String semester);
     
+    // Courses with only the given fields, optionally by department and/or semester
+    default List<Map<String, Object>> findCourseFields(List<String> fields, String department, String semester) {
+        return findFields(Course.class, fields, (root, query, cb) -> cb.and(
+                department != null ? cb.equal(root.get("department"), department) : cb.conjunction(),
+                semester != null ? cb.equal(root.get("semester"), semester) : cb.conjunction()), Limit.unlimited());
+    }
+    
     // Search courses by title containing keyword (case insensitive)
     @Query("SELECT c FROM Course c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Course> findByTitleContainingIgnoreCase(@Param("keyword") String keyword);
@@ -31,6 +82,13 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // Find courses with credits between min and max
     List<Course> findByCreditsBetween(Integer minCredits, Integer maxCredits);
     
+    // Read courses in ID order after a given ID (used to build the search index)
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    // Read course IDs in order after a given ID
+    @Query("SELECT c.id FROM Course c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+    
     // Check if course code exists
     boolean existsByCode(String code);
 }
@@ -0,0 +1,23 @@
+package com.thishan.cms_backend.repository;
+
+import java.util.Collection;
+
+/**
+ * Conditional seat counter updates on courses. Implemented with native statements so that
+ * a seat change invalidates only the cached copy of its own course, not the whole course
+ * cache region as a JPQL bulk UPDATE would.
+ */
+public interface CourseSeatRepository {
+    
+    // Take one seat if the course has room; returns 0 when the course is full
+    int reserveSeat(Long id);
+    
+    // Add seats already checked against capacity under a row lock
+    int addSeats(Long id, int seats);
+    
+    // Give back one seat
+    int releaseSeat(Long id);
+    
+    // Recompute the seat counters of the given courses from the enrollments table
+    int recountSeats(Collection<Long> ids);
+}
@@ -0,0 +1,83 @@
+package com.thishan.cms_backend.repository;
+
+import com.thishan.cms_backend.entity.Course;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public class CourseSeatRepositoryImpl implements CourseSeatRepository {
+    
+    // Query space the seat statements declare instead of the courses table. Declaring the table would make
+    // Hibernate clear the whole course region after every seat change; the changed courses are locked instead.
+    // Cacheable queries that read enrolled_count must add this space.
+    public static final String SEAT_QUERY_SPACE = "course_seats";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional
+    public int reserveSeat(Long id) {
+        return update(List.of(id), "UPDATE courses SET enrolled_count = enrolled_count + 1 " +
+                "WHERE id = :id AND (capacity IS NULL OR enrolled_count < capacity)", "id", id);
+    }
+    
+    @Override
+    @Transactional
+    public int addSeats(Long id, int seats) {
+        return update(List.of(id), "UPDATE courses SET enrolled_count = enrolled_count + :seats WHERE id = :id",
+                "id", id, "seats", seats);
+    }
+    
+    @Override
+    @Transactional
+    public int releaseSeat(Long id) {
+        return update(List.of(id), "UPDATE courses SET enrolled_count = enrolled_count - 1 " +
+                "WHERE id = :id AND enrolled_count > 0", "id", id);
+    }
+    
+    @Override
+    @Transactional
+    public int recountSeats(Collection<Long> ids) {
+        return update(ids, "UPDATE courses SET enrolled_count = (SELECT COUNT(*) FROM enrollments e " +
+                "WHERE e.course_id = courses.id AND e.status <> 'DROPPED') WHERE id IN (:ids)", "ids", ids);
+    }
+    
+    // Run a seat statement after soft-locking the cached entries of the courses it changes
+    private int update(Collection<Long> courseIds, String sql, Object... parameters) {
+        lockCachedCourses(courseIds);
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedQuerySpace(SEAT_QUERY_SPACE);
+        for (int i = 0; i < parameters.length; i += 2) {
+            query.setParameter((String) parameters[i], parameters[i + 1]);
+        }
+        return query.executeUpdate();
+    }
+    
+    // As Hibernate does for entity updates: while a cached course is locked no transaction can cache it, and
+    // after the lock is released at the end of this transaction only loads that began later can, so no copy
+    // read before the seat change commits ends up in the cache
+    private void lockCachedCourses(Collection<Long> courseIds) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(Course.class);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess cache = persister.getCacheAccessStrategy();
+        for (Long id : courseIds) {
+            Object key = cache.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+            SoftLock lock = cache.lockItem(session, key, null);
+            session.getActionQueue().registerProcess((success, s) -> cache.unlockItem(s, key, lock));
+        }
+    }
+}
@@ -1,27 +1,110 @@
 package com.thishan.cms_backend.repository;
 
+import com.thishan.cms_backend.dto.EnrollmentChange;
+import com.thishan.cms_backend.dto.EnrollmentSummary;
+import com.thishan.cms_backend.dto.ResourceVersion;
 import com.thishan.cms_backend.entity.Enrollment;
 import com.thishan.cms_backend.entity.Course;
 import com.thishan.cms_backend.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, FieldProjection {
     
     // Find all enrollments with eagerly loaded student and course
     @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course")
     List<Enrollment> findAllWithStudentAndCourse();
     
+    // Find the next page of enrollments after a given ID (keyset pagination) with optional filters
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course WHERE e.id > :afterId " +
+           "AND (:status IS NULL OR e.status = :status) " +
+           "AND (:semester IS NULL OR e.semester = :semester) " +
+           "AND (:academicYear IS NULL OR e.academicYear = :academicYear) " +
+           "ORDER BY e.id")
+    List<Enrollment> findPageAfterId(@Param("afterId") Long afterId,
+                                     @Param("status") Enrollment.EnrollmentStatus status,
+                                     @Param("semester") String semester,
+                                     @Param("academicYear") String academicYear,
+                                     Limit limit);
+    
+    // Stream enrollments in ID order for exports; rows are fetched from the driver in chunks
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course " +
+           "WHERE (:status IS NULL OR e.status = :status) " +
+           "AND (:semester IS NULL OR e.semester = :semester) " +
+           "AND (:academicYear IS NULL OR e.academicYear = :academicYear) " +
+           "ORDER BY e.id")
+    Stream<Enrollment> streamAllForExport(@Param("status") Enrollment.EnrollmentStatus status,
+                                          @Param("semester") String semester,
+                                          @Param("academicYear") String academicYear);
+    
     // Find enrollment by ID with eagerly loaded student and course
     @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course WHERE e.id = :id")
     Optional<Enrollment> findByIdWithStudentAndCourse(@Param("id") Long id);
     
+    // Find enrollments by a set of IDs with eagerly loaded students and courses
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course WHERE e.id IN :ids")
+    List<Enrollment> findAllWithStudentAndCourseByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Lean list-view rows: only the columns the UI shows, no entity hydration
+    String SUMMARY_SELECT = "SELECT new com.thishan.cms_backend.dto.EnrollmentSummary(" +
+            "e.id, s.studentId, s.firstName, s.lastName, c.code, c.title, " +
+            "e.status, e.grade, e.semester, e.academicYear, e.enrollmentDate) " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c ";
+    
+    // Find all enrollment summaries
+    @Query(SUMMARY_SELECT + "ORDER BY e.id")
+    List<EnrollmentSummary> findAllSummaries();
+    
+    // Find enrollment summaries by student ID
+    @Query(SUMMARY_SELECT + "WHERE s.studentId = :studentId ORDER BY e.id")
+    List<EnrollmentSummary> findSummariesByStudentId(@Param("studentId") String studentId);
+    
+    // Find enrollment summaries by course code
+    @Query(SUMMARY_SELECT + "WHERE c.code = :courseCode ORDER BY e.id")
+    List<EnrollmentSummary> findSummariesByCourseCode(@Param("courseCode") String courseCode);
+    
+    // Versions of summary lists: row count and the latest update of any enrollment, student or course they show
+    String SUMMARY_VERSION_SELECT = "SELECT new com.thishan.cms_backend.dto.ResourceVersion(" +
+            "COUNT(e), MAX(e.updatedAt), MAX(s.updatedAt), MAX(c.updatedAt)) " +
+            "FROM Enrollment e JOIN e.student s JOIN e.course c ";
+    
+    // Version of all enrollment summaries
+    @Query(SUMMARY_VERSION_SELECT)
+    ResourceVersion findSummariesVersion();
+    
+    // Version of the enrollment summaries of a student
+    @Query(SUMMARY_VERSION_SELECT + "WHERE s.studentId = :studentId")
+    ResourceVersion findSummariesVersionByStudentId(@Param("studentId") String studentId);
+    
+    // Version of the enrollment summaries of a course
+    @Query(SUMMARY_VERSION_SELECT + "WHERE c.code = :courseCode")
+    ResourceVersion findSummariesVersionByCourseCode(@Param("courseCode") String courseCode);
+    
+    // Version of one enrollment with its student and course
+    @Query("SELECT new com.thishan.cms_backend.dto.ResourceVersion(" +
+           "COUNT(e), MAX(e.updatedAt), MAX(s.updatedAt), MAX(c.updatedAt)) " +
+           "FROM Enrollment e JOIN e.student s JOIN e.course c WHERE e.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+    
     // Find enrollments by student
     List<Enrollment> findByStudent(Student student);
     
@@ -36,6 +119,25 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course WHERE e.course.code = :courseCode")
     List<Enrollment> findByCourseCode(@Param("courseCode") String courseCode);
     
+    // Enrollments with only the given fields, optionally by student ID and/or course code
+    default List<Map<String, Object>> findEnrollmentFields(List<String> fields, String studentId, String courseCode) {
+        return findFields(Enrollment.class, fields, (root, query, cb) -> cb.and(
+                studentId != null ? cb.equal(root.get("student").get("studentId"), studentId) : cb.conjunction(),
+                courseCode != null ? cb.equal(root.get("course").get("code"), courseCode) : cb.conjunction()),
+                Limit.unlimited());
+    }
+    
+    // Like findPageAfterId, with only the given fields
+    default List<Map<String, Object>> findEnrollmentFieldsPageAfterId(List<String> fields, Long afterId,
+                                                                      Enrollment.EnrollmentStatus status,
+                                                                      String semester, String academicYear, Limit limit) {
+        return findFields(Enrollment.class, fields, (root, query, cb) -> cb.and(
+                cb.greaterThan(root.get("id"), afterId),
+                status != null ? cb.equal(root.get("status"), status) : cb.conjunction(),
+                semester != null ? cb.equal(root.get("semester"), semester) : cb.conjunction(),
+                academicYear != null ? cb.equal(root.get("academicYear"), academicYear) : cb.conjunction()), limit);
+    }
+    
     // Find enrollments by status
     @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course WHERE e.status = :status")
     List<Enrollment> findByStatus(@Param("status") Enrollment.EnrollmentStatus status);
@@ -59,6 +161,71 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.student.studentId = :studentId AND e.course.code = :courseCode")
     boolean existsByStudentIdAndCourseCode(@Param("studentId") String studentId, @Param("courseCode") String courseCode);
     
+    // Check if student is enrolled in a course by primary keys (reads only the unique student/course index)
+    @Query("SELECT COUNT(e) > 0 FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId")
+    boolean existsByStudentAndCourseIds(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+    
+    // Get (student id, course id) pairs that already exist among the given students and courses
+    @Query("SELECT e.student.id, e.course.id FROM Enrollment e WHERE e.student.id IN :studentIds AND e.course.id IN :courseIds")
+    List<Object[]> findStudentCoursePairs(@Param("studentIds") Collection<Long> studentIds,
+                                          @Param("courseIds") Collection<Long> courseIds);
+    
+    // IDs of the next chunk of enrollments in the given statuses for a course and/or term, in ID order
+    @Query("SELECT e.id FROM Enrollment e WHERE e.id > :afterId AND e.status IN :statuses " +
+           "AND (:courseId IS NULL OR e.course.id = :courseId) " +
+           "AND (:semester IS NULL OR e.semester = :semester) " +
+           "AND (:academicYear IS NULL OR e.academicYear = :academicYear) " +
+           "ORDER BY e.id")
+    List<Long> findIdsForTransition(@Param("afterId") Long afterId,
+                                    @Param("statuses") Collection<Enrollment.EnrollmentStatus> statuses,
+                                    @Param("courseId") Long courseId,
+                                    @Param("semester") String semester,
+                                    @Param("academicYear") String academicYear,
+                                    Limit limit);
+    
+    // Move the given enrollments to a new status, skipping any that have left the expected statuses meanwhile
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.status = :status, e.updatedAt = :updatedAt " +
+           "WHERE e.id IN :ids AND e.status IN :fromStatuses")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids,
+                          @Param("fromStatuses") Collection<Enrollment.EnrollmentStatus> fromStatuses,
+                          @Param("status") Enrollment.EnrollmentStatus status,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // State of the enrollments a status UPDATE changed (those given the status and timestamp it set), for change events
+    @Query("SELECT new com.thishan.cms_backend.dto.EnrollmentChange(e.id, e.student.id, e.course.id, e.status, " +
+           "e.grade, e.semester, e.academicYear, e.enrollmentDate, e.updatedAt) FROM Enrollment e " +
+           "WHERE e.id IN :ids AND e.status = :status AND e.updatedAt = :updatedAt ORDER BY e.id")
+    List<EnrollmentChange> findChangesByIds(@Param("ids") Collection<Long> ids,
+                                            @Param("status") Enrollment.EnrollmentStatus status,
+                                            @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Find enrollments by ID with their courses, for changes that need course credits
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.course WHERE e.id IN :ids")
+    List<Enrollment> findAllWithCourseByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Get the (student id, semester, academic year) terms of the graded enrollments among the given ones
+    @Query("SELECT DISTINCT e.student.id, e.semester, e.academicYear FROM Enrollment e " +
+           "WHERE e.id IN :ids AND e.status IN :statuses AND e.grade IS NOT NULL")
+    List<Object[]> findGradedTermsByIds(@Param("ids") Collection<Long> ids,
+                                        @Param("statuses") Collection<Enrollment.EnrollmentStatus> statuses);
+    
+    // Get the (student id, semester, academic year) terms of the graded enrollments in a course
+    @Query("SELECT DISTINCT e.student.id, e.semester, e.academicYear FROM Enrollment e " +
+           "WHERE e.course.id = :courseId AND e.grade IS NOT NULL")
+    List<Object[]> findGradedTermsByCourseId(@Param("courseId") Long courseId);
+    
+    // Get (status, grade, course credits) of a student's enrollments in one term; a missing semester or year matches ''
+    @Query("SELECT e.status, e.grade, c.credits FROM Enrollment e JOIN e.course c WHERE e.student.id = :studentId " +
+           "AND COALESCE(e.semester, '') = :semester AND COALESCE(e.academicYear, '') = :academicYear")
+    List<Object[]> findTermGrades(@Param("studentId") Long studentId,
+                                  @Param("semester") String semester,
+                                  @Param("academicYear") String academicYear);
+    
+    // Get the distinct course IDs of the given enrollments
+    @Query("SELECT DISTINCT e.course.id FROM Enrollment e WHERE e.id IN :ids")
+    List<Long> findCourseIdsByIds(@Param("ids") Collection<Long> ids);
+    
     // Get enrollment count for a course
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.code = :courseCode")
     Long countByCourseCode(@Param("courseCode") String courseCode);
@@ -70,4 +237,18 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     // Get courses enrolled by a specific student
     @Query("SELECT e.course FROM Enrollment e WHERE e.student.studentId = :studentId")
     List<Course> findCoursesByStudentId(@Param("studentId") String studentId);
+    
+    // Get the enrollment counts of a course grouped by status
+    @Query("SELECT e.status, COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId GROUP BY e.status")
+    List<Object[]> countByCourseIdGroupByStatus(@Param("courseId") Long courseId);
+    
+    // Get enrollment counts grouped by status
+    @Query("SELECT e.status, COUNT(e) FROM Enrollment e GROUP BY e.status")
+    List<Object[]> countGroupByStatus();
+    
+    // Count enrollments made after a given date
+    long countByEnrollmentDateAfter(LocalDateTime since);
+    
+    // Count enrollments whose grade is in the given set
+    long countByGradeIn(Collection<String> grades);
 }
@@ -0,0 +1,21 @@
+package com.thishan.cms_backend.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse fieldsets: queries that select only the columns of the fields a client asked
+ * for, instead of loading entities and writing every field. Fields are the JSON property
+ * names of the entity; "course.code" names a field of an associated entity (joined only
+ * when one of its fields other than the ID is selected) and "course" all of its fields.
+ * The rows bypass the second-level cache.
+ */
+public interface FieldProjection {
+    
+    // Rows of the entity's ID and the given fields, as maps in field order (fields of an association nested
+    // under its name), matching the filter (null for all rows), in ID order; an unknown field is an IllegalArgumentException
+    <T> List<Map<String, Object>> findFields(Class<T> entityClass, List<String> fields, Specification<T> filter, Limit limit);
+}
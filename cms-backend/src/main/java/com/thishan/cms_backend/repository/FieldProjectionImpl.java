@@ -0,0 +1,152 @@
+package com.thishan.cms_backend.repository;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class FieldProjectionImpl implements FieldProjection {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public <T> List<Map<String, Object>> findFields(Class<T> entityClass, List<String> fields,
+                                                    Specification<T> filter, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+        
+        // Paths through an association become implicit joins, shared with any the filter uses
+        List<String> paths = resolvePaths(root.getModel(), fields);
+        List<Path<?>> selections = new ArrayList<>();
+        for (String path : paths) {
+            Path<?> selection = root;
+            for (String attribute : path.split("\\.")) {
+                selection = selection.get(attribute);
+            }
+            selections.add(selection);
+        }
+        query.multiselect(new ArrayList<>(selections));
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(cb.asc(root.get(idName(root.getModel()))));
+        
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < paths.size(); i++) {
+                put(row, paths.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    // The attribute paths to select: the ID, then each requested field, an association expanded to its fields
+    private List<String> resolvePaths(EntityType<?> type, List<String> fields) {
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add(idName(type));
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            int dot = name.indexOf('.');
+            Attribute<?, ?> attribute = attribute(type, dot < 0 ? name : name.substring(0, dot), field);
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC && dot < 0) {
+                paths.add(name);
+            } else if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE) {
+                EntityType<?> target = entityManager.getMetamodel().entity(attribute.getJavaType());
+                if (dot < 0) {
+                    basicAttributeNames(target).forEach(nested -> paths.add(name + "." + nested));
+                } else {
+                    Attribute<?, ?> nested = attribute(target, name.substring(dot + 1), field);
+                    if (nested.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                        throw new IllegalArgumentException("Unknown field: " + field);
+                    }
+                    paths.add(name);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return new ArrayList<>(paths);
+    }
+    
+    // A persistent attribute that is also written to JSON
+    private static Attribute<?, ?> attribute(ManagedType<?> type, String name, String field) {
+        Attribute<?, ?> attribute;
+        try {
+            attribute = type.getAttribute(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown field: " + field, e);
+        }
+        if (attribute.isCollection() || isJsonIgnored(attribute)) {
+            throw new IllegalArgumentException("Unknown field: " + field);
+        }
+        return attribute;
+    }
+    
+    // The fields an association expands to: its ID first, then its other JSON fields by name
+    private static List<String> basicAttributeNames(EntityType<?> type) {
+        List<String> names = new ArrayList<>();
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC
+                    && !isJsonIgnored(attribute) && !attribute.getName().equals(idName(type))) {
+                names.add(attribute.getName());
+            }
+        }
+        names.sort(null);
+        names.add(0, idName(type));
+        return names;
+    }
+    
+    private static boolean isJsonIgnored(Attribute<?, ?> attribute) {
+        return attribute.getJavaMember() instanceof AnnotatedElement member && member.isAnnotationPresent(JsonIgnore.class);
+    }
+    
+    private static String idName(EntityType<?> type) {
+        return type.getId(type.getIdType().getJavaType()).getName();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> row, String path, Object value) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            row.put(path, value);
+        } else {
+            ((Map<String, Object>) row.computeIfAbsent(path.substring(0, dot), key -> new LinkedHashMap<>()))
+                    .put(path.substring(dot + 1), value);
+        }
+    }
+}
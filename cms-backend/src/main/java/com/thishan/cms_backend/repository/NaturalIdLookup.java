@@ -0,0 +1,18 @@
+package com.thishan.cms_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lookups by an entity's natural id. Hibernate resolves them from the natural-id and entity
+ * cache regions when it can, so a hit needs no SQL at all.
+ */
+public interface NaturalIdLookup {
+    
+    // Find an entity by its @NaturalId
+    <T> Optional<T> findByNaturalId(Class<T> entityClass, Object naturalId);
+    
+    // Find the entities with any of a list of natural ids, in no particular order; the ids that are not
+    // cached are loaded with IN (...) queries of up to 1000 values
+    <T> List<T> findAllByNaturalIds(Class<T> entityClass, List<?> naturalIds);
+}
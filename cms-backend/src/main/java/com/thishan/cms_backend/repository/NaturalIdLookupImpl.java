@@ -0,0 +1,38 @@
+package com.thishan.cms_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+public class NaturalIdLookupImpl implements NaturalIdLookup {
+    
+    // Upper bound on the number of values bound into a single IN (...) clause
+    private static final int MULTI_LOAD_BATCH_SIZE = 1000;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public <T> Optional<T> findByNaturalId(Class<T> entityClass, Object naturalId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(entityClass).loadOptional(naturalId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public <T> List<T> findAllByNaturalIds(Class<T> entityClass, List<?> naturalIds) {
+        return entityManager.unwrap(Session.class).byMultipleNaturalId(entityClass)
+                .withBatchSize(MULTI_LOAD_BATCH_SIZE)
+                // Hibernate cannot return natural-id multi-loads in order; the callers restore the order
+                .enableOrderedReturn(false)
+                .multiLoad(naturalIds)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.thishan.cms_backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outbox_events table, through JDBC: its IDs come from AUTO_INCREMENT, with which
+ * Hibernate cannot batch inserts, and bulk enrollment writes add an event per row.
+ */
+@Repository
+public class OutboxEventRepository {
+    
+    // An outbox row; id is null until inserted
+    public record OutboxEvent(Long id, String aggregateType, long aggregateId, String eventType, String payload,
+                              LocalDateTime createdAt) {}
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    // Insert events with batched statements, in list order
+    public void insertAll(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, " +
+                "created_at) VALUES (?, ?, ?, ?, ?)", events, 500, (statement, event) -> {
+            statement.setString(1, event.aggregateType());
+            statement.setLong(2, event.aggregateId());
+            statement.setString(3, event.eventType());
+            statement.setString(4, event.payload());
+            statement.setTimestamp(5, Timestamp.valueOf(event.createdAt()));
+        });
+    }
+    
+    // The oldest unpublished events, in ID order
+    public List<OutboxEvent> findOldest(int limit) {
+        return jdbcTemplate.query("SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at " +
+                "FROM outbox_events ORDER BY id LIMIT ?", (rs, row) -> new OutboxEvent(rs.getLong(1),
+                rs.getString(2), rs.getLong(3), rs.getString(4), rs.getString(5),
+                rs.getTimestamp(6).toLocalDateTime()), limit);
+    }
+    
+    // Delete published events; ids must fit one IN (...) clause
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+    
+    // Number of events waiting to be published
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Long.class);
+        return count != null ? count : 0;
+    }
+}
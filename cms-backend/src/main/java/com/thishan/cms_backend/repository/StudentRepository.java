@@ -1,26 +1,73 @@
 package com.thishan.cms_backend.repository;
 
+import com.thishan.cms_backend.dto.ResourceVersion;
 import com.thishan.cms_backend.entity.Student;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, NaturalIdLookup, FieldProjection {
     
-    // Find student by student ID
-    Optional<Student> findByStudentId(String studentId);
+    // Find student by student ID, through the second-level cache
+    default Optional<Student> findByStudentId(String studentId) {
+        return findByNaturalId(Student.class, studentId);
+    }
     
-    // Find student by email
+    // Find students by a list of student IDs, in the same order with null for unknown IDs, through the second-level cache
+    default List<Student> findAllByStudentIds(List<String> studentIds) {
+        Map<String, Student> byStudentId = new HashMap<>();
+        findAllByNaturalIds(Student.class, studentIds).forEach(student -> byStudentId.put(student.getStudentId(), student));
+        return studentIds.stream().map(byStudentId::get).toList();
+    }
+    
+    // Find a student by primary key and lock the row for the current transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Student s WHERE s.id = :id")
+    Optional<Student> findByIdForUpdate(@Param("id") Long id);
+    
+    // Version of the student list (row count and latest update), without loading any rows
+    @Query("SELECT new com.thishan.cms_backend.dto.ResourceVersion(COUNT(s), MAX(s.updatedAt)) FROM Student s")
+    ResourceVersion findVersion();
+    
+    // Version of one student by primary key; the count is 0 when it does not exist
+    @Query("SELECT new com.thishan.cms_backend.dto.ResourceVersion(COUNT(s), MAX(s.updatedAt)) FROM Student s WHERE s.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+    
+    // Version of one student by student ID; the count is 0 when it does not exist
+    @Query("SELECT new com.thishan.cms_backend.dto.ResourceVersion(COUNT(s), MAX(s.updatedAt)) FROM Student s " +
+           "WHERE s.studentId = :studentId")
+    ResourceVersion findVersionByStudentId(@Param("studentId") String studentId);
+    
+    // Find students by a set of student IDs
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
+    
+    // Find student by email; the matching ID is kept in the query cache until the students table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Student> findByEmail(String email);
     
     // Find students by department
     List<Student> findByDepartment(String department);
     
+    // Students with only the given fields, optionally by department
+    default List<Map<String, Object>> findStudentFields(List<String> fields, String department) {
+        return findFields(Student.class, fields, (root, query, cb) ->
+                department != null ? cb.equal(root.get("department"), department) : null, Limit.unlimited());
+    }
+    
     // Find students by year of study
     List<Student> findByYearOfStudy(Integer yearOfStudy);
     
@@ -32,6 +79,9 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
            "OR LOWER(s.lastName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Student> findByNameContainingIgnoreCase(@Param("keyword") String keyword);
     
+    // Read students in ID order after a given ID (used to build the search index)
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
     // Check if student ID exists
     boolean existsByStudentId(String studentId);
     
@@ -0,0 +1,48 @@
+package com.thishan.cms_backend.repository;
+
+import com.thishan.cms_backend.entity.StudentTermAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StudentTermAggregateRepository extends JpaRepository<StudentTermAggregate, Long> {
+    
+    // Terms with any credits for a student, oldest academic year first
+    @Query("SELECT a FROM StudentTermAggregate a WHERE a.studentId = :studentId " +
+           "AND (a.attemptedCredits > 0 OR a.earnedCredits > 0) ORDER BY a.academicYear, a.semester")
+    List<StudentTermAggregate> findTermsByStudentId(@Param("studentId") Long studentId);
+    
+    // Add to the totals of a term; returns 0 when the term has no row yet
+    @Modifying
+    @Query("UPDATE StudentTermAggregate a SET a.attemptedCredits = a.attemptedCredits + :attempted, " +
+           "a.earnedCredits = a.earnedCredits + :earned, a.qualityPoints = a.qualityPoints + :qualityPoints, " +
+           "a.updatedAt = :updatedAt " +
+           "WHERE a.studentId = :studentId AND a.semester = :semester AND a.academicYear = :academicYear")
+    int addToTerm(@Param("studentId") Long studentId,
+                  @Param("semester") String semester,
+                  @Param("academicYear") String academicYear,
+                  @Param("attempted") int attempted,
+                  @Param("earned") int earned,
+                  @Param("qualityPoints") BigDecimal qualityPoints,
+                  @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Overwrite the totals of a term; returns 0 when the term has no row yet
+    @Modifying
+    @Query("UPDATE StudentTermAggregate a SET a.attemptedCredits = :attempted, a.earnedCredits = :earned, " +
+           "a.qualityPoints = :qualityPoints, a.updatedAt = :updatedAt " +
+           "WHERE a.studentId = :studentId AND a.semester = :semester AND a.academicYear = :academicYear")
+    int assignTerm(@Param("studentId") Long studentId,
+                   @Param("semester") String semester,
+                   @Param("academicYear") String academicYear,
+                   @Param("attempted") int attempted,
+                   @Param("earned") int earned,
+                   @Param("qualityPoints") BigDecimal qualityPoints,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,249 @@
+package com.thishan.cms_backend.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of character trigrams over weighted text fields.
+ * Documents are keyed by entity ID. A query is split into terms; each term
+ * must appear as a substring of at least one field. Trigram postings narrow
+ * the candidates and a substring check on the stored text confirms each hit.
+ * A rebuild loads the documents alongside live changes: it skips every ID put or
+ * removed since it started, since the row it read may be older than that change.
+ */
+public class NgramIndex {
+    
+    private static final int GRAM = 3;
+    
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedField[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // IDs put or removed since the running rebuild started, null when none is running; guarded by the write lock
+    private Set<Long> changedDuringRebuild;
+    
+    // A normalized field value with its ranking weight
+    private record IndexedField(String text, int weight) {}
+    
+    // A field value to be indexed
+    public record Field(String value, int weight) {}
+    
+    // A matching document ID and its score
+    public record Hit(Long id, int score) {}
+    
+    // Add or replace the document with the given ID
+    public void put(Long id, Field... fields) {
+        IndexedField[] indexed = index(fields);
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            putInternal(id, indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Remove the document with the given ID
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Remove every document and start a rebuild, which loads them with putIfUnchanged until finishRebuild
+    public void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Add a document read by the running rebuild, unless it has been put or removed since the rebuild started
+    public void putIfUnchanged(Long id, Field... fields) {
+        IndexedField[] indexed = index(fields);
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild == null || !changedDuringRebuild.contains(id)) {
+                putInternal(id, indexed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // End the running rebuild
+    public void finishRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Find all documents matching every term of the query, best matches first
+    public List<Hit> search(String query) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            List<Hit> hits = new ArrayList<>();
+            for (Long id : candidates(terms)) {
+                int score = score(documents.get(id), terms);
+                if (score > 0) {
+                    hits.add(new Hit(id, score));
+                }
+            }
+            hits.sort(Comparator.comparingInt(Hit::score).reversed().thenComparing(Hit::id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Intersect the postings of every trigram in the query, smallest list first
+    private Set<Long> candidates(List<String> terms) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Set<Long> posting = postings.get(term.substring(i, i + GRAM));
+                if (posting == null) {
+                    return Set.of();
+                }
+                lists.add(posting);
+            }
+        }
+        // Terms shorter than a trigram cannot use the index
+        if (lists.isEmpty()) {
+            return documents.keySet();
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+    
+    // Score a document: every term must match some field; exact and prefix matches rank higher
+    private static int score(IndexedField[] fields, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (IndexedField field : fields) {
+                int position = field.text().indexOf(term);
+                if (position < 0) {
+                    continue;
+                }
+                int quality;
+                if (field.text().equals(term)) {
+                    quality = 4;
+                } else if (position == 0 || field.text().charAt(position - 1) == ' ') {
+                    quality = 2;
+                } else {
+                    quality = 1;
+                }
+                best = Math.max(best, quality * field.weight());
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+    
+    private static IndexedField[] index(Field[] fields) {
+        IndexedField[] indexed = new IndexedField[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            indexed[i] = new IndexedField(normalize(fields[i].value()), fields[i].weight());
+        }
+        return indexed;
+    }
+    
+    private void markChanged(Long id) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(id);
+        }
+    }
+    
+    private void putInternal(Long id, IndexedField[] indexed) {
+        removeInternal(id);
+        documents.put(id, indexed);
+        for (String gram : grams(indexed)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+    
+    private void removeInternal(Long id) {
+        IndexedField[] previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+    
+    private static Set<String> grams(IndexedField[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (IndexedField field : fields) {
+            String text = field.text();
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                grams.add(text.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+    
+    private static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : normalize(query).split(" ")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+    
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,29 @@
+package com.thishan.cms_backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers changes to in-memory state (caches, the search index) that mirrors the database
+ * until the transaction that changed the rows has committed. Applied earlier, a concurrent
+ * reader could copy the old rows back in, and a rollback would leave changes that never
+ * happened.
+ */
+final class AfterCommit {
+    
+    private AfterCommit() {}
+    
+    // Run an action after the current transaction commits (not at all if it rolls back), or now when there is none
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
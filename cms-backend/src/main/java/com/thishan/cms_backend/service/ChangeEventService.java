@@ -0,0 +1,261 @@
+package com.thishan.cms_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thishan.cms_backend.changelog.SegmentedLog;
+import com.thishan.cms_backend.dto.ChangeEvent;
+import com.thishan.cms_backend.dto.EnrollmentChange;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Change events for course, student and enrollment writes, through a transactional outbox.
+ * Writes insert their events into outbox_events in their own transaction, so an event exists
+ * exactly when its change committed. A scheduled publisher appends pending events to the
+ * change log, a SegmentedLog under cms.change-log.directory, and then deletes them; consumers
+ * read the log from the offset they reached instead of rescanning tables. A crash between
+ * the append and the delete publishes those events again, under the same eventId.
+ * <p>
+ * The log is local to the instance that publishes it, so in a deployment with several
+ * instances the publisher should be enabled (cms.change-log.publisher-enabled) on one.
+ */
+@Service
+public class ChangeEventService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventService.class);
+    
+    public static final int MAX_READ_SIZE = 1000;
+    
+    public enum AggregateType {
+        COURSE, STUDENT, ENROLLMENT
+    }
+    
+    public enum EventType {
+        CREATED, UPDATED, DELETED
+    }
+    
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${cms.change-log.directory:data/change-log}")
+    private Path directory;
+    
+    @Value("${cms.change-log.segment-size:64MB}")
+    private DataSize segmentSize;
+    
+    @Value("${cms.change-log.retention:P7D}")
+    private Duration retention;
+    
+    @Value("${cms.change-log.publish-batch-size:500}")
+    private int publishBatchSize;
+    
+    @Value("${cms.change-log.publisher-enabled:true}")
+    private boolean publisherEnabled;
+    
+    private SegmentedLog changeLog;
+    
+    // One publisher at a time, since each batch numbers its records from the log's next offset
+    private final ReentrantLock publishLock = new ReentrantLock();
+    
+    // Events collected while entities are written, inserted into the outbox together
+    public static class Changes {
+        
+        private final List<Change> changes = new ArrayList<>();
+        
+        private record Change(AggregateType aggregateType, Long aggregateId, EventType eventType, Object state) {}
+        
+        public void add(EventType type, Course course) {
+            changes.add(new Change(AggregateType.COURSE, course.getId(), type, course));
+        }
+        
+        public void add(EventType type, Student student) {
+            changes.add(new Change(AggregateType.STUDENT, student.getId(), type, student));
+        }
+        
+        // The enrollment's state is taken when the changes are applied, after its pending updates are flushed
+        public void add(EventType type, Enrollment enrollment) {
+            changes.add(new Change(AggregateType.ENROLLMENT, enrollment.getId(), type, enrollment));
+        }
+        
+        public void add(EventType type, EnrollmentChange enrollment) {
+            changes.add(new Change(AggregateType.ENROLLMENT, enrollment.id(), type, enrollment));
+        }
+        
+        public boolean isEmpty() {
+            return changes.isEmpty();
+        }
+    }
+    
+    @PostConstruct
+    public void openChangeLog() throws IOException {
+        changeLog = SegmentedLog.open(directory, segmentSize.toBytes());
+        log.info("Change log at {} holds offsets {} to {}", directory.toAbsolutePath(), changeLog.startOffset(),
+                changeLog.nextOffset());
+    }
+    
+    @PreDestroy
+    public void closeChangeLog() throws IOException {
+        changeLog.close();
+    }
+    
+    // Record a single change in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EventType type, Course course) {
+        Changes changes = new Changes();
+        changes.add(type, course);
+        apply(changes);
+    }
+    
+    // Record a single change in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EventType type, Student student) {
+        Changes changes = new Changes();
+        changes.add(type, student);
+        apply(changes);
+    }
+    
+    // Record a single change in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EventType type, Enrollment enrollment) {
+        Changes changes = new Changes();
+        changes.add(type, enrollment);
+        apply(changes);
+    }
+    
+    // Insert collected events into the outbox in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Changes changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Flush first, so the written rows are locked and their timestamps set before the events get their IDs:
+        // a later write to the same row then always gets a later event
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEventRepository.OutboxEvent> events = new ArrayList<>(changes.changes.size());
+        for (Changes.Change change : changes.changes) {
+            Object state = change.state() instanceof Enrollment enrollment ? EnrollmentChange.of(enrollment) : change.state();
+            events.add(new OutboxEventRepository.OutboxEvent(null, change.aggregateType().name(), change.aggregateId(),
+                    change.eventType().name(), toJson(state), now));
+        }
+        outboxRepository.insertAll(events);
+    }
+    
+    // Publish pending events until the outbox is drained
+    @Scheduled(fixedDelayString = "${cms.change-log.publish-interval:PT1S}")
+    public void publishPendingEvents() {
+        if (!publisherEnabled) {
+            return;
+        }
+        publishLock.lock();
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(tx -> publishBatch());
+            } while (published != null && published == publishBatchSize);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+    
+    // Delete log segments older than the retention period
+    @Scheduled(fixedDelayString = "${cms.change-log.retention-check-interval:PT1H}")
+    public void applyRetention() throws IOException {
+        int deleted = changeLog.deleteSegmentsBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} change log segments; the log now starts at offset {}", deleted, changeLog.startOffset());
+        }
+    }
+    
+    // Read up to limit events from an offset; the batch starts later if retention has removed that offset
+    public SegmentedLog.Batch readChanges(long fromOffset, int limit) {
+        try {
+            return changeLog.read(fromOffset, Math.min(Math.max(limit, 1), MAX_READ_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Offset the next published event will get
+    public long getNextOffset() {
+        return changeLog.nextOffset();
+    }
+    
+    // Offset of the oldest event still kept
+    public long getStartOffset() {
+        return changeLog.startOffset();
+    }
+    
+    // Number of events waiting to be published
+    public long getPendingCount() {
+        return outboxRepository.countPending();
+    }
+    
+    // Append the oldest pending events to the log and delete them from the outbox
+    private int publishBatch() {
+        List<OutboxEventRepository.OutboxEvent> events = outboxRepository.findOldest(publishBatchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        long offset = changeLog.nextOffset();
+        List<byte[]> records = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEventRepository.OutboxEvent event : events) {
+            ChangeEvent record = new ChangeEvent(offset++, event.id(), event.aggregateType(), event.aggregateId(),
+                    event.eventType(), event.createdAt(), event.payload());
+            records.add(toJson(record).getBytes(StandardCharsets.UTF_8));
+            ids.add(event.id());
+        }
+        try {
+            changeLog.append(records);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxRepository.deleteByIds(ids);
+        return events.size();
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change event", e);
+        }
+    }
+}
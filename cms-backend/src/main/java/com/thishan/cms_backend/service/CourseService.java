@@ -1,11 +1,22 @@
 package com.thishan.cms_backend.service;
 
+import com.thishan.cms_backend.config.CacheConfig;
+import com.thishan.cms_backend.config.ReadWriteRoutingDataSource;
+import com.thishan.cms_backend.dto.CourseSeats;
+import com.thishan.cms_backend.dto.MultiGetResult;
+import com.thishan.cms_backend.dto.ResourceVersion;
 import com.thishan.cms_backend.entity.Course;
 import com.thishan.cms_backend.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -14,31 +25,80 @@ public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
     
-    // Get all courses
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private SearchService searchService;
+    
+    @Autowired
+    private TranscriptService transcriptService;
+    
+    @Autowired
+    private EnrollmentCounterService counterService;
+    
+    @Autowired
+    private ChangeEventService changeEventService;
+    
+    // Get all courses. Catalog entries are loaded on the primary: an entry refilled from a lagging read replica
+    // just after a write evicted it would stay stale until it expires
+    @Cacheable(CacheConfig.COURSES)
+    @Transactional(readOnly = true)
     public List<Course> getAllCourses() {
+        ReadWriteRoutingDataSource.usePrimary();
         return courseRepository.findAll();
     }
     
     // Get course by ID
+    @Transactional(readOnly = true)
     public Optional<Course> getCourseById(Long id) {
         return courseRepository.findById(id);
     }
     
+    // Get the version of a course for conditional GETs, without loading it
+    @Transactional(readOnly = true)
+    public ResourceVersion getCourseVersion(Long id) {
+        return courseRepository.findVersionById(id);
+    }
+    
+    // Get the seats of a course by code, current rather than cached
+    @Transactional(readOnly = true)
+    public Optional<CourseSeats> getCourseSeats(String code) {
+        return courseRepository.findSeatsByCode(code);
+    }
+    
     // Get course by code
+    @Cacheable(CacheConfig.COURSE_BY_CODE)
+    @Transactional(readOnly = true)
     public Optional<Course> getCourseByCode(String code) {
+        ReadWriteRoutingDataSource.usePrimary();
         return courseRepository.findByCode(code);
     }
     
+    // Get courses by a list of codes in request order, with the codes that match no course
+    @Transactional(readOnly = true)
+    public MultiGetResult<String, Course> getCoursesByCodes(List<String> codes) {
+        List<String> keys = MultiGetResult.distinctKeys(codes);
+        return MultiGetResult.of(keys, courseRepository.findAllByCodes(keys));
+    }
+    
     // Create a new course
+    @Transactional
     public Course createCourse(Course course) {
         // Check if course code already exists
         if (courseRepository.existsByCode(course.getCode())) {
             throw new RuntimeException("Course with code " + course.getCode() + " already exists");
         }
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        counterService.createCounters(savedCourse.getId());
+        changeEventService.record(ChangeEventService.EventType.CREATED, savedCourse);
+        evictCatalogEntries(savedCourse);
+        searchService.indexCourse(savedCourse);
+        return savedCourse;
     }
     
     // Update an existing course
+    @Transactional
     public Course updateCourse(Long id, Course courseDetails) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
@@ -49,39 +109,73 @@ public class CourseService {
             throw new RuntimeException("Course with code " + courseDetails.getCode() + " already exists");
         }
         
+        // Evict entries under the old code, department and semester as well as the new ones
+        evictCatalogEntries(course);
+        Integer previousCredits = course.getCredits();
+        
         course.setCode(courseDetails.getCode());
         course.setTitle(courseDetails.getTitle());
         course.setDescription(courseDetails.getDescription());
         course.setCredits(courseDetails.getCredits());
         course.setSemester(courseDetails.getSemester());
         course.setDepartment(courseDetails.getDepartment());
+        course.setCapacity(courseDetails.getCapacity());
         
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        changeEventService.record(ChangeEventService.EventType.UPDATED, savedCourse);
+        evictCatalogEntries(savedCourse);
+        searchService.indexCourse(savedCourse);
+        // Grade points are weighted by credits, so every graded term of the course changes with them
+        if (!Objects.equals(previousCredits, savedCourse.getCredits())) {
+            transcriptService.refreshCourseTerms(savedCourse.getId());
+        }
+        return savedCourse;
     }
     
     // Delete a course
+    @Transactional
     public void deleteCourse(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
         courseRepository.delete(course);
+        changeEventService.record(ChangeEventService.EventType.DELETED, course);
+        evictCatalogEntries(course);
+        searchService.removeCourse(course.getId());
     }
     
     // Get courses by department
+    @Cacheable(CacheConfig.COURSES_BY_DEPARTMENT)
+    @Transactional(readOnly = true)
     public List<Course> getCoursesByDepartment(String department) {
+        ReadWriteRoutingDataSource.usePrimary();
         return courseRepository.findByDepartment(department);
     }
     
     // Get courses by semester
+    @Cacheable(CacheConfig.COURSES_BY_SEMESTER)
+    @Transactional(readOnly = true)
     public List<Course> getCoursesBySemester(String semester) {
+        ReadWriteRoutingDataSource.usePrimary();
         return courseRepository.findBySemester(semester);
     }
     
-    // Search courses by title
+    // Get courses with only the given fields, optionally by department or semester; only those columns are read
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCourseFields(List<String> fields, String department, String semester) {
+        return courseRepository.findCourseFields(fields, department, semester);
+    }
+    
+    // Search courses by title, code or description
+    @Transactional(readOnly = true)
     public List<Course> searchCoursesByTitle(String keyword) {
-        return courseRepository.findByTitleContainingIgnoreCase(keyword);
+        if (!searchService.isReady()) {
+            return courseRepository.findByTitleContainingIgnoreCase(keyword);
+        }
+        return searchService.findCourses(keyword);
     }
     
     // Get courses by credits range
+    @Transactional(readOnly = true)
     public List<Course> getCoursesByCreditsRange(Integer minCredits, Integer maxCredits) {
         return courseRepository.findByCreditsBetween(minCredits, maxCredits);
     }
@@ -90,4 +184,29 @@ public class CourseService {
     public boolean existsByCode(String code) {
         return courseRepository.existsByCode(code);
     }
+    
+    // Evict only the catalog cache entries a course appears in, under its current code, department and semester,
+    // once the transaction commits: evicted earlier, a concurrent read could cache the row as it was before the write.
+    // Seat changes need no eviction, since the cached courses do not show their enrolled count.
+    private void evictCatalogEntries(Course course) {
+        String code = course.getCode();
+        String department = course.getDepartment();
+        String semester = course.getSemester();
+        AfterCommit.run(() -> {
+            Cache allCourses = cacheManager.getCache(CacheConfig.COURSES);
+            if (allCourses != null) {
+                allCourses.clear();
+            }
+            evict(CacheConfig.COURSE_BY_CODE, code);
+            evict(CacheConfig.COURSES_BY_DEPARTMENT, department);
+            evict(CacheConfig.COURSES_BY_SEMESTER, semester);
+        });
+    }
+    
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.DashboardSummary;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.EnrollmentRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DashboardService {
+    
+    // Grades counted as a successful completion on the dashboard
+    public static final List<String> PASSING_GRADES = List.of("A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-");
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private EnrollmentCounterService counterService;
+    
+    // Build the dashboard summary from aggregate queries and the enrollment counters only
+    @Transactional(readOnly = true)
+    public DashboardSummary getSummary(int recentDays) {
+        DashboardSummary summary = new DashboardSummary();
+        summary.setTotalCourses(courseRepository.count());
+        summary.setTotalStudents(studentRepository.count());
+        
+        // Every status is present, so the response shape is stable
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long totalEnrollments = 0;
+        for (Map.Entry<Enrollment.EnrollmentStatus, Long> entry : counterService.getCountsByStatus().entrySet()) {
+            byStatus.put(entry.getKey().name(), entry.getValue());
+            totalEnrollments += entry.getValue();
+        }
+        summary.setEnrollmentsByStatus(byStatus);
+        summary.setTotalEnrollments(totalEnrollments);
+        
+        summary.setSuccessfulEnrollments(enrollmentRepository.countByGradeIn(PASSING_GRADES));
+        summary.setRecentDays(recentDays);
+        summary.setRecentEnrollments(
+                enrollmentRepository.countByEnrollmentDateAfter(LocalDateTime.now().minusDays(recentDays)));
+        return summary;
+    }
+}
@@ -0,0 +1,205 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.CourseEnrollmentCounts;
+import com.thishan.cms_backend.entity.CourseEnrollmentCount;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.repository.CourseEnrollmentCountRepository;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Materialized enrollment counts per course and status. Enrollment writes change the
+ * counters in the same transaction; set-based writes recount the courses they touched.
+ * A scheduled reconciliation adds counters for courses created outside the application
+ * and repairs any count that has drifted from the enrollments table.
+ */
+@Service
+public class EnrollmentCounterService {
+    
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentCounterService.class);
+    
+    // Courses recounted per reconciliation transaction
+    private static final int RECONCILE_CHUNK = 200;
+    
+    @Autowired
+    private CourseEnrollmentCountRepository countRepository;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Counter changes collected while enrollments are modified, applied with one UPDATE per counter
+    public static class Changes {
+        
+        // Counters are updated in (course, status) order, so concurrent batches cannot deadlock on them
+        private final Map<CourseEnrollmentCount.Key, Long> deltas = new TreeMap<>(
+                Comparator.comparing(CourseEnrollmentCount.Key::getCourseId)
+                        .thenComparing(CourseEnrollmentCount.Key::getStatus));
+        
+        // Count an enrollment added to (delta 1) or removed from (delta -1) a course in the given status
+        public void add(Long courseId, Enrollment.EnrollmentStatus status, long delta) {
+            deltas.merge(new CourseEnrollmentCount.Key(courseId, status), delta, Long::sum);
+        }
+        
+        // Count an enrollment of a course moving from one status to another
+        public void move(Long courseId, Enrollment.EnrollmentStatus from, Enrollment.EnrollmentStatus to) {
+            if (from != to) {
+                add(courseId, from, -1);
+                add(courseId, to, 1);
+            }
+        }
+    }
+    
+    // Apply collected changes in the caller's transaction
+    @Transactional
+    public void apply(Changes changes) {
+        Set<Long> recounted = new HashSet<>();
+        changes.deltas.forEach((key, delta) -> {
+            if (delta == 0 || recounted.contains(key.getCourseId())) {
+                return;
+            }
+            if (countRepository.addToCount(key.getCourseId(), key.getStatus(), delta) == 0) {
+                // No counters yet: create them from the enrollments, which already include this transaction's changes
+                createCounters(key.getCourseId());
+                recounted.add(key.getCourseId());
+            }
+        });
+    }
+    
+    // Create the counters of a course from its enrollments, unless another transaction already has
+    @Transactional
+    public void createCounters(Long courseId) {
+        if (courseRepository.findByIdForUpdate(courseId).isEmpty()
+                || countRepository.existsById(new CourseEnrollmentCount.Key(courseId, Enrollment.EnrollmentStatus.ENROLLED))) {
+            return;
+        }
+        Map<Enrollment.EnrollmentStatus, Long> counts = emptyCounts();
+        for (Object[] row : enrollmentRepository.countByCourseIdGroupByStatus(courseId)) {
+            counts.put((Enrollment.EnrollmentStatus) row[0], ((Number) row[1]).longValue());
+        }
+        // persist, not save: the keys are assigned, so save would SELECT each row before inserting it
+        counts.forEach((status, count) -> entityManager.persist(new CourseEnrollmentCount(courseId, status, count)));
+    }
+    
+    // Recompute the counters of the given courses, after changes made with set-based UPDATEs. The course rows
+    // are locked first, in ID order: every enrollment write locks its course before the enrollment rows and
+    // counters, so the recount's reads of the enrollments cannot wait on a writer that waits on it
+    @Transactional
+    public int recount(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return 0;
+        }
+        courseRepository.findByIdInForUpdate(courseIds);
+        return countRepository.recount(courseIds);
+    }
+    
+    // Add missing counters and repair drifted ones, a chunk of courses per transaction
+    @Scheduled(fixedDelayString = "${cms.enrollment-counts.reconcile-interval:PT1H}")
+    public void reconcile() {
+        int created = 0;
+        List<Long> missing;
+        long afterId = 0L;
+        while (!(missing = countRepository.findCourseIdsWithoutCounts(afterId, Limit.of(RECONCILE_CHUNK))).isEmpty()) {
+            List<Long> ids = missing;
+            transactionTemplate.executeWithoutResult(tx -> ids.forEach(this::createCounters));
+            created += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        
+        int repaired = 0;
+        List<Long> courseIds;
+        afterId = 0L;
+        while (!(courseIds = courseRepository.findIdsAfter(afterId, Limit.of(RECONCILE_CHUNK))).isEmpty()) {
+            List<Long> ids = courseIds;
+            repaired += transactionTemplate.execute(tx -> recount(ids));
+            afterId = ids.get(ids.size() - 1);
+        }
+        
+        if (created > 0 || repaired > 0) {
+            log.warn("Enrollment counters reconciled: created counters for {} courses, repaired {} counts", created, repaired);
+        } else {
+            log.debug("Enrollment counters reconciled: no drift");
+        }
+    }
+    
+    // Get the enrollment counts of every course, in course code order
+    @Transactional(readOnly = true)
+    public List<CourseEnrollmentCounts> getAllCounts() {
+        Map<Long, String> codes = new LinkedHashMap<>();
+        Map<Long, Map<Enrollment.EnrollmentStatus, Long>> byCourse = new LinkedHashMap<>();
+        for (Object[] row : countRepository.findAllCounts()) {
+            Long courseId = (Long) row[0];
+            codes.put(courseId, (String) row[1]);
+            Map<Enrollment.EnrollmentStatus, Long> counts = byCourse.computeIfAbsent(courseId, id -> emptyCounts());
+            if (row[2] != null) {
+                counts.put((Enrollment.EnrollmentStatus) row[2], (Long) row[3]);
+            }
+        }
+        List<CourseEnrollmentCounts> result = new ArrayList<>(byCourse.size());
+        byCourse.forEach((courseId, counts) -> {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            long total = 0;
+            for (Map.Entry<Enrollment.EnrollmentStatus, Long> entry : counts.entrySet()) {
+                byStatus.put(entry.getKey().name(), entry.getValue());
+                total += entry.getValue();
+            }
+            result.add(new CourseEnrollmentCounts(courseId, codes.get(courseId), total, byStatus));
+        });
+        return result;
+    }
+    
+    // Get the number of enrollments in a course over all statuses
+    @Transactional(readOnly = true)
+    public long getCount(String courseCode) {
+        Long count = countRepository.sumByCourseCode(courseCode);
+        return count != null ? count : 0L;
+    }
+    
+    // Get enrollment totals per status over all courses
+    @Transactional(readOnly = true)
+    public Map<Enrollment.EnrollmentStatus, Long> getCountsByStatus() {
+        Map<Enrollment.EnrollmentStatus, Long> counts = emptyCounts();
+        for (Object[] row : countRepository.sumGroupByStatus()) {
+            counts.put((Enrollment.EnrollmentStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+    
+    // Every status at zero, in declaration order
+    private static Map<Enrollment.EnrollmentStatus, Long> emptyCounts() {
+        Map<Enrollment.EnrollmentStatus, Long> counts = new EnumMap<>(Enrollment.EnrollmentStatus.class);
+        for (Enrollment.EnrollmentStatus status : Enrollment.EnrollmentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,125 @@
+package com.thishan.cms_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class EnrollmentExportService {
+    
+    // Number of rows written before the persistence context is cleared
+    private static final int CLEAR_INTERVAL = 500;
+    
+    private static final String CSV_HEADER = "id,studentId,studentName,courseCode,courseTitle,status,grade," +
+            "semester,academicYear,enrollmentDate";
+    
+    public enum ExportFormat {
+        CSV, NDJSON
+    }
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Stream matching enrollments to the output in the given format, returns the number of rows written
+    @Transactional(readOnly = true)
+    public long exportEnrollments(OutputStream out, ExportFormat format, Enrollment.EnrollmentStatus status,
+                                  String semester, String academicYear) throws IOException {
+        try (Stream<Enrollment> enrollments = enrollmentRepository.streamAllForExport(status, semester, academicYear)) {
+            if (format == ExportFormat.CSV) {
+                return writeCsv(out, enrollments.iterator());
+            }
+            return writeNdjson(out, enrollments.iterator());
+        }
+    }
+    
+    private long writeNdjson(OutputStream out, Iterator<Enrollment> enrollments) throws IOException {
+        long count = 0;
+        SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+        while (enrollments.hasNext()) {
+            writer.write(enrollments.next());
+            count = afterRow(count);
+        }
+        writer.flush();
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+    
+    private long writeCsv(OutputStream out, Iterator<Enrollment> enrollments) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (enrollments.hasNext()) {
+            Enrollment e = enrollments.next();
+            writer.write(String.valueOf(e.getId()));
+            writer.write(',');
+            writer.write(csv(e.getStudent().getStudentId()));
+            writer.write(',');
+            writer.write(csv(e.getStudent().getFirstName() + " " + e.getStudent().getLastName()));
+            writer.write(',');
+            writer.write(csv(e.getCourse().getCode()));
+            writer.write(',');
+            writer.write(csv(e.getCourse().getTitle()));
+            writer.write(',');
+            writer.write(e.getStatus() != null ? e.getStatus().name() : "");
+            writer.write(',');
+            writer.write(csv(e.getGrade()));
+            writer.write(',');
+            writer.write(csv(e.getSemester()));
+            writer.write(',');
+            writer.write(csv(e.getAcademicYear()));
+            writer.write(',');
+            writer.write(e.getEnrollmentDate() != null ? e.getEnrollmentDate().toString() : "");
+            writer.write('\n');
+            count = afterRow(count);
+        }
+        writer.flush();
+        return count;
+    }
+    
+    // Clear the persistence context periodically so memory stays flat for large exports
+    private long afterRow(long count) {
+        count++;
+        if (count % CLEAR_INTERVAL == 0) {
+            entityManager.clear();
+        }
+        return count;
+    }
+    
+    // Quote a CSV value when it contains a separator, quote or line break
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
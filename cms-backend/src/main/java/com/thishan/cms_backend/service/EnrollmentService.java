@@ -1,20 +1,54 @@
 package com.thishan.cms_backend.service;
 
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.dto.BulkGradeRow;
+import com.thishan.cms_backend.dto.BulkResult;
+import com.thishan.cms_backend.dto.BulkRowResult;
+import com.thishan.cms_backend.dto.CursorPage;
+import com.thishan.cms_backend.dto.EnrollmentSummary;
+import com.thishan.cms_backend.dto.MultiGetResult;
+import com.thishan.cms_backend.dto.ResourceVersion;
+import com.thishan.cms_backend.dto.StatusTransitionResult;
 import com.thishan.cms_backend.entity.Enrollment;
 import com.thishan.cms_backend.entity.Course;
 import com.thishan.cms_backend.entity.Student;
 import com.thishan.cms_backend.repository.EnrollmentRepository;
 import com.thishan.cms_backend.repository.CourseRepository;
 import com.thishan.cms_backend.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class EnrollmentService {
     
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 10000;
+    
+    // Upper bound on the number of values bound into a single IN (...) clause
+    private static final int IN_CLAUSE_CHUNK = 1000;
+    
     @Autowired
     private EnrollmentRepository enrollmentRepository;
     
@@ -24,27 +58,146 @@ public class EnrollmentService {
     @Autowired
     private StudentRepository studentRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TranscriptService transcriptService;
+    
+    @Autowired
+    private EnrollmentCounterService counterService;
+    
+    @Autowired
+    private ChangeEventService changeEventService;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+    
     // Get all enrollments
+    @Transactional(readOnly = true)
     public List<Enrollment> getAllEnrollments() {
         return enrollmentRepository.findAllWithStudentAndCourse();
     }
     
+    // Get all enrollments as lean list-view rows
+    @Transactional(readOnly = true)
+    public List<EnrollmentSummary> getAllEnrollmentSummaries() {
+        return enrollmentRepository.findAllSummaries();
+    }
+    
+    // Get the version of all enrollment summaries for conditional GETs, without loading them
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllEnrollmentSummariesVersion() {
+        return enrollmentRepository.findSummariesVersion();
+    }
+    
+    // Get enrollment summaries by student ID
+    @Transactional(readOnly = true)
+    public List<EnrollmentSummary> getEnrollmentSummariesByStudentId(String studentId) {
+        return enrollmentRepository.findSummariesByStudentId(studentId);
+    }
+    
+    // Get the version of a student's enrollment summaries
+    @Transactional(readOnly = true)
+    public ResourceVersion getEnrollmentSummariesVersionByStudentId(String studentId) {
+        return enrollmentRepository.findSummariesVersionByStudentId(studentId);
+    }
+    
+    // Get enrollment summaries by course code
+    @Transactional(readOnly = true)
+    public List<EnrollmentSummary> getEnrollmentSummariesByCourseCode(String courseCode) {
+        return enrollmentRepository.findSummariesByCourseCode(courseCode);
+    }
+    
+    // Get the version of a course's enrollment summaries
+    @Transactional(readOnly = true)
+    public ResourceVersion getEnrollmentSummariesVersionByCourseCode(String courseCode) {
+        return enrollmentRepository.findSummariesVersionByCourseCode(courseCode);
+    }
+    
+    // Get a page of enrollments after the given cursor, optionally filtered
+    @Transactional(readOnly = true)
+    public CursorPage<Enrollment> getEnrollmentsPage(Long afterId, int size, Enrollment.EnrollmentStatus status,
+                                                     String semester, String academicYear) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        
+        // Fetch one extra row to find out whether another page exists
+        List<Enrollment> rows = enrollmentRepository.findPageAfterId(
+                cursor, status, semester, academicYear, Limit.of(pageSize + 1));
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
+        }
+        return new CursorPage<>(rows, pageSize, nextCursor);
+    }
+    
+    // Get a page of enrollments with only the given fields after the given cursor, optionally filtered
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getEnrollmentFieldsPage(List<String> fields, Long afterId, int size,
+                                                                  Enrollment.EnrollmentStatus status,
+                                                                  String semester, String academicYear) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        
+        // Fetch one extra row to find out whether another page exists; every row has the ID
+        List<Map<String, Object>> rows = enrollmentRepository.findEnrollmentFieldsPageAfterId(
+                fields, cursor, status, semester, academicYear, Limit.of(pageSize + 1));
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = (Long) rows.get(pageSize - 1).get("id");
+        }
+        return new CursorPage<>(rows, pageSize, nextCursor);
+    }
+    
+    // Get enrollments with only the given fields, optionally by student ID and/or course code; only those columns are read
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEnrollmentFields(List<String> fields, String studentId, String courseCode) {
+        return enrollmentRepository.findEnrollmentFields(fields, studentId, courseCode);
+    }
+    
     // Get enrollment by ID
+    @Transactional(readOnly = true)
     public Optional<Enrollment> getEnrollmentById(Long id) {
         return enrollmentRepository.findByIdWithStudentAndCourse(id);
     }
     
+    // Get enrollments by a list of IDs in request order, with the IDs that match no enrollment; one query per chunk
+    @Transactional(readOnly = true)
+    public MultiGetResult<Long, Enrollment> getEnrollmentsByIds(List<Long> ids) {
+        List<Long> keys = MultiGetResult.distinctKeys(ids);
+        Map<Long, Enrollment> found = new HashMap<>();
+        for (List<Long> chunk : chunk(keys)) {
+            enrollmentRepository.findAllWithStudentAndCourseByIdIn(chunk).forEach(e -> found.put(e.getId(), e));
+        }
+        return MultiGetResult.of(keys, keys.stream().map(found::get).toList());
+    }
+    
+    // Get the version of an enrollment, its student and its course for conditional GETs, without loading them
+    @Transactional(readOnly = true)
+    public ResourceVersion getEnrollmentVersion(Long id) {
+        return enrollmentRepository.findVersionById(id);
+    }
+    
     // Get enrollments by student ID
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsByStudentId(String studentId) {
         return enrollmentRepository.findByStudentId(studentId);
     }
     
     // Get enrollments by course code
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsByCourseCode(String courseCode) {
         return enrollmentRepository.findByCourseCode(courseCode);
     }
     
-    // Create a new enrollment
+    // Create a new enrollment, taking a seat in the course
+    @Transactional
     public Enrollment createEnrollment(String studentId, String courseCode, String semester, String academicYear) {
         // Find student
         Student student = studentRepository.findByStudentId(studentId)
@@ -55,77 +208,397 @@ public class EnrollmentService {
                 .orElseThrow(() -> new RuntimeException("Course not found with code: " + courseCode));
         
         // Check if student is already enrolled in this course
-        if (enrollmentRepository.existsByStudentIdAndCourseCode(studentId, courseCode)) {
+        if (enrollmentRepository.existsByStudentAndCourseIds(student.getId(), course.getId())) {
             throw new RuntimeException("Student " + studentId + " is already enrolled in course " + courseCode);
         }
         
-        // Create new enrollment
+        // Take a seat with a single conditional UPDATE; the row lock it holds serializes this course only
+        if (courseRepository.reserveSeat(course.getId()) == 0) {
+            throw new RuntimeException("Course " + courseCode + " is full");
+        }
+        
+        // Create new enrollment; the unique (student, course) constraint rejects a concurrent duplicate
         Enrollment enrollment = new Enrollment(student, course, semester, academicYear);
-        return enrollmentRepository.save(enrollment);
+        try {
+            enrollment = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Student " + studentId + " is already enrolled in course " + courseCode, e);
+        }
+        EnrollmentCounterService.Changes counts = new EnrollmentCounterService.Changes();
+        counts.add(course.getId(), enrollment.getStatus(), 1);
+        counterService.apply(counts);
+        changeEventService.record(ChangeEventService.EventType.CREATED, enrollment);
+        return enrollment;
+    }
+    
+    // Create many enrollments at once, reporting success or failure per row
+    @Transactional
+    public BulkResult createEnrollments(List<BulkEnrollmentRow> rows) {
+        if (rows.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " enrollments can be created per request");
+        }
+        
+        // Resolve all natural keys with a few set-based queries
+        Set<String> studentIds = new HashSet<>();
+        Set<String> courseCodes = new HashSet<>();
+        for (BulkEnrollmentRow row : rows) {
+            if (row.getStudentId() != null) {
+                studentIds.add(row.getStudentId());
+            }
+            if (row.getCourseCode() != null) {
+                courseCodes.add(row.getCourseCode());
+            }
+        }
+        Map<String, Student> students = new HashMap<>();
+        for (List<String> chunk : chunk(studentIds)) {
+            studentRepository.findByStudentIdIn(chunk).forEach(s -> students.put(s.getStudentId(), s));
+        }
+        // Lock the course rows so seats can be counted and taken without racing single enrollments
+        Map<String, Course> courses = new HashMap<>();
+        for (List<String> chunk : chunk(courseCodes)) {
+            courseRepository.findByCodeInForUpdate(chunk).forEach(c -> courses.put(c.getCode(), c));
+        }
+        Set<String> enrolled = findExistingPairs(students.values(), courses.values());
+        Map<Long, Integer> seatsLeft = new HashMap<>();
+        for (Course course : courses.values()) {
+            seatsLeft.put(course.getId(), course.getCapacity() == null
+                    ? Integer.MAX_VALUE
+                    : Math.max(course.getCapacity() - course.getEnrolledCount(), 0));
+        }
+        Map<Long, Integer> seatsTaken = new HashMap<>();
+        EnrollmentCounterService.Changes counts = new EnrollmentCounterService.Changes();
+        ChangeEventService.Changes events = new ChangeEventService.Changes();
+        
+        List<BulkRowResult> results = new ArrayList<>(rows.size());
+        int pending = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            BulkEnrollmentRow row = rows.get(i);
+            Student student = students.get(row.getStudentId());
+            Course course = courses.get(row.getCourseCode());
+            if (student == null) {
+                results.add(BulkRowResult.failed(i, "Student not found with ID: " + row.getStudentId()));
+                continue;
+            }
+            if (course == null) {
+                results.add(BulkRowResult.failed(i, "Course not found with code: " + row.getCourseCode()));
+                continue;
+            }
+            // Also catches the same pair appearing twice in one request
+            if (!enrolled.add(pairKey(student.getId(), course.getId()))) {
+                results.add(BulkRowResult.failed(i, "Student " + row.getStudentId() +
+                        " is already enrolled in course " + row.getCourseCode()));
+                continue;
+            }
+            int left = seatsLeft.get(course.getId());
+            if (left == 0) {
+                results.add(BulkRowResult.failed(i, "Course " + row.getCourseCode() + " is full"));
+                continue;
+            }
+            seatsLeft.put(course.getId(), left - 1);
+            seatsTaken.merge(course.getId(), 1, Integer::sum);
+            
+            Enrollment enrollment = new Enrollment(student, course, row.getSemester(), row.getAcademicYear());
+            entityManager.persist(enrollment);
+            counts.add(course.getId(), enrollment.getStatus(), 1);
+            events.add(ChangeEventService.EventType.CREATED, enrollment);
+            results.add(BulkRowResult.succeeded(i, enrollment.getId()));
+            
+            // Flush each full JDBC batch and drop it from the persistence context
+            if (++pending % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        seatsTaken.forEach(courseRepository::addSeats);
+        counterService.apply(counts);
+        changeEventService.apply(events);
+        return new BulkResult(results);
     }
     
     // Update enrollment status
+    @Transactional
     public Enrollment updateEnrollmentStatus(Long enrollmentId, Enrollment.EnrollmentStatus status) {
         Enrollment enrollment = enrollmentRepository.findByIdWithStudentAndCourse(enrollmentId)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + enrollmentId));
         
-        enrollment.setStatus(status);
-        return enrollmentRepository.save(enrollment);
+        // The course row before the enrollment and its counters, the lock order of every enrollment write
+        courseRepository.findByIdForUpdate(enrollment.getCourse().getId());
+        TranscriptService.Contribution before = TranscriptService.contributionOf(enrollment);
+        EnrollmentCounterService.Changes counts = new EnrollmentCounterService.Changes();
+        changeStatus(enrollment, status, counts);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        transcriptService.recordChange(enrollment, before);
+        counterService.apply(counts);
+        changeEventService.record(ChangeEventService.EventType.UPDATED, saved);
+        return saved;
     }
     
     // Update enrollment grade
+    @Transactional
     public Enrollment updateEnrollmentGrade(Long enrollmentId, String grade) {
         Enrollment enrollment = enrollmentRepository.findByIdWithStudentAndCourse(enrollmentId)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + enrollmentId));
         
-        enrollment.setGrade(grade);
-        // If grade is assigned, mark as completed
-        if (grade != null && !grade.trim().isEmpty()) {
-            enrollment.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
+        // The course row before the enrollment and its counters, the lock order of every enrollment write
+        courseRepository.findByIdForUpdate(enrollment.getCourse().getId());
+        TranscriptService.Contribution before = TranscriptService.contributionOf(enrollment);
+        EnrollmentCounterService.Changes counts = new EnrollmentCounterService.Changes();
+        applyGrade(enrollment, grade, counts);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        transcriptService.recordChange(enrollment, before);
+        counterService.apply(counts);
+        changeEventService.record(ChangeEventService.EventType.UPDATED, saved);
+        return saved;
+    }
+    
+    // Apply a roster of grades in one transaction, reporting success or failure per row
+    @Transactional
+    public BulkResult updateEnrollmentGrades(List<BulkGradeRow> rows) {
+        if (rows.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " grades can be submitted per request");
+        }
+        
+        BulkRowResult[] results = new BulkRowResult[rows.size()];
+        // Request position of each enrollment ID still to be applied
+        Map<Long, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            BulkGradeRow row = rows.get(i);
+            if (row.getEnrollmentId() == null) {
+                results[i] = BulkRowResult.failed(i, "Enrollment ID is required");
+            } else if (row.getGrade() != null && row.getGrade().length() > Enrollment.GRADE_LENGTH) {
+                results[i] = BulkRowResult.failed(i, "Grade must be at most " + Enrollment.GRADE_LENGTH + " characters");
+            } else if (positions.putIfAbsent(row.getEnrollmentId(), i) != null) {
+                results[i] = BulkRowResult.failed(i, "Enrollment " + row.getEnrollmentId() + " appears more than once");
+            }
         }
         
-        return enrollmentRepository.save(enrollment);
+        // Lock every course of the batch before any enrollment row, all in ID order
+        Set<Long> courseIds = new TreeSet<>();
+        for (List<Long> ids : chunk(positions.keySet())) {
+            courseIds.addAll(enrollmentRepository.findCourseIdsByIds(ids));
+        }
+        for (List<Long> ids : chunk(courseIds)) {
+            courseRepository.findByIdInForUpdate(ids);
+        }
+        
+        // One SELECT per chunk; the changes go out as batched UPDATEs when the chunk is flushed
+        TranscriptService.Changes transcriptChanges = new TranscriptService.Changes();
+        EnrollmentCounterService.Changes counts = new EnrollmentCounterService.Changes();
+        ChangeEventService.Changes events = new ChangeEventService.Changes();
+        for (List<Long> ids : chunk(positions.keySet())) {
+            for (Enrollment enrollment : enrollmentRepository.findAllWithCourseByIdIn(ids)) {
+                int i = positions.remove(enrollment.getId());
+                try {
+                    TranscriptService.Contribution before = TranscriptService.contributionOf(enrollment);
+                    applyGrade(enrollment, rows.get(i).getGrade(), counts);
+                    transcriptChanges.record(enrollment, before);
+                    events.add(ChangeEventService.EventType.UPDATED, enrollment);
+                    results[i] = BulkRowResult.succeeded(i, enrollment.getId());
+                } catch (RuntimeException e) {
+                    results[i] = BulkRowResult.failed(i, e.getMessage());
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        transcriptService.apply(transcriptChanges);
+        counterService.apply(counts);
+        changeEventService.apply(events);
+        positions.forEach((id, i) -> results[i] = BulkRowResult.failed(i, "Enrollment not found with id: " + id));
+        return new BulkResult(Arrays.asList(results));
+    }
+    
+    // Move every enrollment of a course and/or term that is in one of the given statuses to a new status.
+    // Runs as one UPDATE per chunk of IDs, each chunk in its own transaction so row locks are held briefly;
+    // a failure part-way leaves earlier chunks applied, and running the transition again picks up the rest.
+    public StatusTransitionResult transitionEnrollmentStatus(Collection<Enrollment.EnrollmentStatus> fromStatuses,
+                                                             Enrollment.EnrollmentStatus status, String courseCode,
+                                                             String semester, String academicYear) {
+        if (status == null) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+        if (courseCode == null && (semester == null || academicYear == null)) {
+            throw new IllegalArgumentException("A course code or both semester and academic year are required");
+        }
+        Set<Enrollment.EnrollmentStatus> from = fromStatuses == null || fromStatuses.isEmpty()
+                ? EnumSet.of(Enrollment.EnrollmentStatus.ENROLLED, Enrollment.EnrollmentStatus.IN_PROGRESS)
+                : EnumSet.copyOf(fromStatuses);
+        // Reinstating dropped enrollments needs a capacity check per course; use the single-enrollment update
+        if (from.contains(Enrollment.EnrollmentStatus.DROPPED)) {
+            throw new IllegalArgumentException("Dropped enrollments cannot be transitioned in bulk");
+        }
+        from.remove(status);
+        Long courseId = null;
+        if (courseCode != null) {
+            courseId = courseRepository.findByCode(courseCode)
+                    .orElseThrow(() -> new RuntimeException("Course not found with code: " + courseCode))
+                    .getId();
+        }
+        
+        int updated = 0;
+        int chunks = 0;
+        long afterId = 0L;
+        while (!from.isEmpty()) {
+            List<Long> ids = enrollmentRepository.findIdsForTransition(
+                    afterId, from, courseId, semester, academicYear, Limit.of(IN_CLAUSE_CHUNK));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            updated += transactionTemplate.execute(tx -> transitionChunk(ids, from, status));
+            chunks++;
+            if (ids.size() < IN_CLAUSE_CHUNK) {
+                break;
+            }
+        }
+        return new StatusTransitionResult(status, updated, chunks);
     }
     
-    // Delete an enrollment
+    // Delete an enrollment, giving its seat back
+    @Transactional
     public void deleteEnrollment(Long id) {
         Enrollment enrollment = enrollmentRepository.findByIdWithStudentAndCourse(id)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + id));
+        // The course row before the enrollment and its counters, the lock order of every enrollment write
+        courseRepository.findByIdForUpdate(enrollment.getCourse().getId());
+        TranscriptService.Changes transcriptChanges = new TranscriptService.Changes();
+        transcriptChanges.recordRemoval(enrollment);
         enrollmentRepository.delete(enrollment);
+        if (enrollment.getStatus() != Enrollment.EnrollmentStatus.DROPPED) {
+            courseRepository.releaseSeat(enrollment.getCourse().getId());
+        }
+        transcriptService.apply(transcriptChanges);
+        EnrollmentCounterService.Changes counts = new EnrollmentCounterService.Changes();
+        counts.add(enrollment.getCourse().getId(), enrollment.getStatus(), -1);
+        counterService.apply(counts);
+        changeEventService.record(ChangeEventService.EventType.DELETED, enrollment);
     }
     
     // Get enrollments by status
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsByStatus(Enrollment.EnrollmentStatus status) {
         return enrollmentRepository.findByStatus(status);
     }
     
     // Get enrollments by semester
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsBySemester(String semester) {
         return enrollmentRepository.findBySemester(semester);
     }
     
     // Get enrollments by academic year
+    @Transactional(readOnly = true)
     public List<Enrollment> getEnrollmentsByAcademicYear(String academicYear) {
         return enrollmentRepository.findByAcademicYear(academicYear);
     }
     
     // Get students enrolled in a course
+    @Transactional(readOnly = true)
     public List<Student> getStudentsInCourse(String courseCode) {
         return enrollmentRepository.findStudentsByCourseCode(courseCode);
     }
     
     // Get courses enrolled by a student
+    @Transactional(readOnly = true)
     public List<Course> getCoursesForStudent(String studentId) {
         return enrollmentRepository.findCoursesByStudentId(studentId);
     }
     
-    // Get enrollment count for a course
+    // Get enrollment count for a course from the materialized counters
+    @Transactional(readOnly = true)
     public Long getEnrollmentCountForCourse(String courseCode) {
-        return enrollmentRepository.countByCourseCode(courseCode);
+        return counterService.getCount(courseCode);
     }
     
     // Check if student is enrolled in course
+    @Transactional(readOnly = true)
     public boolean isStudentEnrolledInCourse(String studentId, String courseCode) {
         return enrollmentRepository.existsByStudentIdAndCourseCode(studentId, courseCode);
     }
+    
+    // Set the grade; assigning a non-blank grade completes the enrollment
+    private void applyGrade(Enrollment enrollment, String grade, EnrollmentCounterService.Changes counts) {
+        if (grade != null && !grade.trim().isEmpty()) {
+            changeStatus(enrollment, Enrollment.EnrollmentStatus.COMPLETED, counts);
+        }
+        enrollment.setGrade(grade);
+    }
+    
+    // Change the status, releasing the seat on drop and taking one back when a dropped enrollment is reinstated;
+    // the move is recorded in the given counter changes. The caller has locked the course row
+    private void changeStatus(Enrollment enrollment, Enrollment.EnrollmentStatus status,
+                              EnrollmentCounterService.Changes counts) {
+        boolean wasDropped = enrollment.getStatus() == Enrollment.EnrollmentStatus.DROPPED;
+        boolean isDropped = status == Enrollment.EnrollmentStatus.DROPPED;
+        Course course = enrollment.getCourse();
+        if (wasDropped != isDropped) {
+            if (isDropped) {
+                courseRepository.releaseSeat(course.getId());
+            } else if (courseRepository.reserveSeat(course.getId()) == 0) {
+                throw new RuntimeException("Course " + course.getCode() + " is full");
+            }
+        }
+        counts.move(course.getId(), enrollment.getStatus(), status);
+        enrollment.setStatus(status);
+    }
+    
+    // Apply one chunk of a bulk transition and recount the enrollment counters of the affected courses in the
+    // same transaction; dropping also recounts their seats and the transcript terms of graded enrollments.
+    // The courses are locked before the enrollment rows, in the order single-enrollment writes take them.
+    // The change events carry the updated rows, found again by the timestamp the UPDATE gave them.
+    private int transitionChunk(List<Long> ids, Set<Enrollment.EnrollmentStatus> from, Enrollment.EnrollmentStatus status) {
+        boolean dropping = status == Enrollment.EnrollmentStatus.DROPPED;
+        List<Long> courseIds = enrollmentRepository.findCourseIdsByIds(ids);
+        courseRepository.findByIdInForUpdate(courseIds);
+        List<Object[]> gradedTerms = dropping ? enrollmentRepository.findGradedTermsByIds(ids, from) : List.of();
+        // Stored to the microsecond, so truncated to match it when the rows are selected again
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = enrollmentRepository.updateStatusByIds(ids, from, status, updatedAt);
+        if (updated == 0) {
+            return 0;
+        }
+        ChangeEventService.Changes events = new ChangeEventService.Changes();
+        enrollmentRepository.findChangesByIds(ids, status, updatedAt)
+                .forEach(change -> events.add(ChangeEventService.EventType.UPDATED, change));
+        changeEventService.apply(events);
+        counterService.recount(courseIds);
+        if (dropping) {
+            courseRepository.recountSeats(courseIds);
+            transcriptService.refreshTerms(TranscriptService.toTermKeys(gradedTerms));
+        }
+        return updated;
+    }
+    
+    // Load the (student, course) pairs that are already enrolled, as pair keys
+    private Set<String> findExistingPairs(Collection<Student> students, Collection<Course> courses) {
+        Set<String> pairs = new HashSet<>();
+        if (students.isEmpty() || courses.isEmpty()) {
+            return pairs;
+        }
+        List<Long> courseIds = courses.stream().map(Course::getId).toList();
+        for (List<Long> studentChunk : chunk(students.stream().map(Student::getId).toList())) {
+            for (List<Long> courseChunk : chunk(courseIds)) {
+                for (Object[] row : enrollmentRepository.findStudentCoursePairs(studentChunk, courseChunk)) {
+                    pairs.add(pairKey((Long) row[0], (Long) row[1]));
+                }
+            }
+        }
+        return pairs;
+    }
+    
+    private static String pairKey(Long studentId, Long courseId) {
+        return studentId + ":" + courseId;
+    }
+    
+    // Split values into lists small enough for an IN (...) clause
+    private static <T> List<List<T>> chunk(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += IN_CLAUSE_CHUNK) {
+            chunks.add(all.subList(i, Math.min(i + IN_CLAUSE_CHUNK, all.size())));
+        }
+        return chunks;
+    }
 }
@@ -0,0 +1,403 @@
+package com.thishan.cms_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thishan.cms_backend.changelog.SegmentedLog;
+import com.thishan.cms_backend.dto.EnrollmentDelta;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live enrollment changes as Server-Sent Events, fed from the change log. One scheduled
+ * tailer reads new log records and queues each enrollment change for the subscribers whose
+ * course and student filters match; a small pool of delivery threads writes the queues out.
+ * Idle subscribers hold an async request and a queue but no thread. A subscriber whose queue
+ * fills up (a slow or stalled client) is disconnected rather than buffered for: browsers
+ * reconnect with Last-Event-ID, the log offset of the last event they saw, and are sent the
+ * events they missed, or a reset event telling them to reload when too much has changed.
+ * A send that blocks on a stalled client is found by the heartbeat job, which disconnects the
+ * subscriber so its delivery thread gives up once that write returns.
+ * Log reads and the student and course lookups run outside the cursor lock, which only
+ * orders new subscribers against the cursor, so subscribing never waits on a dispatch.
+ */
+@Service
+public class EnrollmentStreamService {
+    
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentStreamService.class);
+    
+    // Change log records a reconnecting subscriber may be behind before it is told to reload instead
+    static final int MAX_REPLAY_RECORDS = 10000;
+    
+    public static final String RESET_EVENT = "reset";
+    public static final String READY_EVENT = "ready";
+    
+    @Autowired
+    private ChangeEventService changeEventService;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${cms.enrollment-stream.buffer-size:256}")
+    private int bufferSize;
+    
+    @Value("${cms.enrollment-stream.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    @Value("${cms.enrollment-stream.timeout:PT30M}")
+    private Duration timeout;
+    
+    @Value("${cms.enrollment-stream.delivery-threads:16}")
+    private int deliveryThreads;
+    
+    @Value("${cms.enrollment-stream.send-timeout:PT10S}")
+    private Duration sendTimeout;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor deliveryExecutor;
+    private Counter droppedSubscribers;
+    
+    // Offset of the next change log record to dispatch, and the subscribers it applies to: a subscriber joins
+    // at the cursor, after it has been sent the records before it. Both are changed under cursorLock; the
+    // dispatcher, the only one to move the cursor, reads it without
+    private long cursor;
+    private final ReentrantLock cursorLock = new ReentrantLock();
+    
+    // One dispatcher at a time, since each run continues from the cursor the last one left
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    
+    // An event ready to send: formatted once and shared by every subscriber it goes to
+    private record StreamEvent(long nextOffset, EnrollmentDelta delta, Set<ResponseBodyEmitter.DataWithMediaType> data) {}
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final String courseCode;
+        private final String studentId;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue =
+                new LinkedBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // When the send in flight started (epoch milliseconds), 0 when no send is in flight
+        private volatile long sendingSince;
+        // Disconnected by the heartbeat job for a send that took too long
+        private volatile boolean stalled;
+        
+        private Subscriber(SseEmitter emitter, String courseCode, String studentId) {
+            this.emitter = emitter;
+            this.courseCode = courseCode;
+            this.studentId = studentId;
+        }
+        
+        private boolean matches(EnrollmentDelta delta) {
+            return (courseCode == null || courseCode.equals(delta.courseCode()))
+                    && (studentId == null || studentId.equals(delta.studentId()));
+        }
+        
+        // Queue an event for delivery; a subscriber whose queue is full is disconnected
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedSubscribers.increment();
+                log.debug("Disconnecting enrollment stream subscriber with {} undelivered events", queue.size());
+                closed = true;
+            }
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+        
+        // Send queued events until the queue is empty; completes the response once the subscriber is closed
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    sendingSince = System.currentTimeMillis();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away; the emitter's callbacks remove it
+                        closed = true;
+                    } finally {
+                        sendingSince = 0;
+                    }
+                }
+                if (closed) {
+                    remove();
+                    if (stalled) {
+                        emitter.completeWithError(new TimeoutException("Enrollment stream send took longer than "
+                                + sendTimeout));
+                    } else {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+        
+        // Whether a send has been in flight longer than the send timeout
+        private boolean isStalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > sendTimeout.toMillis();
+        }
+        
+        // Disconnect a subscriber whose send has stalled. The emitter is left to the delivery thread: its send holds
+        // the emitter's lock, so completing it here would wait for the stalled write as well
+        private void abort() {
+            stalled = true;
+            if (!closed) {
+                droppedSubscribers.increment();
+                log.debug("Disconnecting enrollment stream subscriber whose send has stalled for over {}", sendTimeout);
+            }
+            remove();
+        }
+        
+        private void remove() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+    
+    @PostConstruct
+    public void start() {
+        deliveryExecutor = new ThreadPoolTaskExecutor();
+        deliveryExecutor.setCorePoolSize(deliveryThreads);
+        deliveryExecutor.setMaxPoolSize(deliveryThreads);
+        deliveryExecutor.setThreadNamePrefix("enrollment-stream-");
+        deliveryExecutor.initialize();
+        cursor = changeEventService.getNextOffset();
+        Gauge.builder("cms.enrollment.stream.subscribers", subscribers, Set::size)
+                .description("Open enrollment stream connections")
+                .register(meterRegistry);
+        droppedSubscribers = Counter.builder("cms.enrollment.stream.dropped")
+                .description("Enrollment stream subscribers disconnected for falling behind or a stalled send")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        deliveryExecutor.shutdown();
+    }
+    
+    // Open a stream, optionally for one course and/or student; resumeFrom is the Last-Event-ID of a reconnecting client
+    public SseEmitter subscribe(String courseCode, String studentId, Long resumeFrom) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("The enrollment stream has reached " + maxSubscribers + " subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, courseCode, studentId);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(e -> subscriber.remove());
+        // Offset up to which the subscriber has been sent the missed events, or -1 when it needs none
+        long replayed = resumeFrom != null ? resumeFrom : -1;
+        // An ID that is not a log offset cannot be resumed from
+        if (replayed < 0 && resumeFrom != null) {
+            subscriber.offer(SseEmitter.event().name(RESET_EVENT).data("").build());
+        }
+        int replayedEvents = 0;
+        while (true) {
+            long target;
+            cursorLock.lock();
+            try {
+                if (replayed < 0 || replayed == cursor) {
+                    // Carries the current offset, so a client that reconnects before any change resumes from here
+                    subscriber.offer(SseEmitter.event().id(Long.toString(cursor)).name(READY_EVENT).data("").build());
+                    subscribers.add(subscriber);
+                    // The client may have gone while its missed events were read
+                    if (subscriber.closed) {
+                        subscriber.remove();
+                    }
+                    return emitter;
+                }
+                target = cursor;
+            } finally {
+                cursorLock.unlock();
+            }
+            // The subscriber is not dispatched to yet, so the missed events queue up ahead of any live one;
+            // if the cursor moves on meanwhile, the next pass sends the records it passed as well
+            List<StreamEvent> missed = target - resumeFrom > MAX_REPLAY_RECORDS ? null
+                    : replay(subscriber, replayed, target);
+            // Leave room in the queue for the ready event and a few live ones
+            if (missed == null || replayedEvents + missed.size() >= bufferSize / 2) {
+                subscriber.offer(SseEmitter.event().name(RESET_EVENT).data("").build());
+                replayed = -1;
+            } else {
+                missed.forEach(event -> subscriber.offer(event.data()));
+                replayedEvents += missed.size();
+                replayed = target;
+            }
+        }
+    }
+    
+    // Queue new change log records for the subscribers they match. The batch is read and turned into events
+    // before the cursor lock is taken; under it the cursor moves past the batch and the subscribers that were
+    // there to receive it are taken, and they are sent the events after it is released
+    @Scheduled(fixedDelayString = "${cms.enrollment-stream.poll-interval:PT0.2S}")
+    public void dispatchChanges() {
+        dispatchLock.lock();
+        try {
+            boolean more = true;
+            while (more) {
+                SegmentedLog.Batch batch = changeEventService.readChanges(cursor, ChangeEventService.MAX_READ_SIZE);
+                // Without subscribers the records are skipped unread
+                boolean skipped = subscribers.isEmpty();
+                List<StreamEvent> events = skipped ? List.of() : toEvents(batch);
+                List<Subscriber> recipients;
+                cursorLock.lock();
+                try {
+                    if (skipped && !subscribers.isEmpty()) {
+                        // A subscriber joined at this batch; read it again for them
+                        continue;
+                    }
+                    cursor = batch.nextOffset();
+                    recipients = events.isEmpty() ? List.of() : List.copyOf(subscribers);
+                } finally {
+                    cursorLock.unlock();
+                }
+                more = batch.records().size() == ChangeEventService.MAX_READ_SIZE;
+                for (StreamEvent event : events) {
+                    for (Subscriber subscriber : recipients) {
+                        if (subscriber.matches(event.delta())) {
+                            subscriber.offer(event.data());
+                        }
+                    }
+                }
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+    
+    // Keep idle connections open through proxies, find the ones whose clients have gone, and disconnect the ones
+    // whose clients have stopped reading
+    @Scheduled(fixedDelayString = "${cms.enrollment-stream.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        long now = System.currentTimeMillis();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.isStalled(now)) {
+                subscriber.abort();
+            } else {
+                subscriber.offer(heartbeat);
+            }
+        });
+    }
+    
+    // Number of open streams
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    // The events of the records from one offset up to another that a subscriber matches, or null when it has to
+    // reload instead because the offset is unknown or no longer kept
+    private List<StreamEvent> replay(Subscriber subscriber, long fromOffset, long toOffset) {
+        if (fromOffset < changeEventService.getStartOffset() || fromOffset > toOffset) {
+            return null;
+        }
+        List<StreamEvent> missed = new ArrayList<>();
+        long offset = fromOffset;
+        while (offset < toOffset) {
+            SegmentedLog.Batch batch = changeEventService.readChanges(offset,
+                    (int) Math.min(toOffset - offset, ChangeEventService.MAX_READ_SIZE));
+            if (batch.firstOffset() != offset || batch.records().isEmpty()) {
+                return null;
+            }
+            for (StreamEvent event : toEvents(batch)) {
+                if (subscriber.matches(event.delta())) {
+                    missed.add(event);
+                }
+            }
+            offset = batch.nextOffset();
+        }
+        return missed;
+    }
+    
+    // Turn the enrollment records of a batch into stream events, looking up student IDs and course codes
+    private List<StreamEvent> toEvents(SegmentedLog.Batch batch) {
+        List<StreamEvent> events = new ArrayList<>();
+        Map<Long, String> studentIds = new HashMap<>();
+        Map<Long, String> courseCodes = new HashMap<>();
+        long offset = batch.firstOffset();
+        for (byte[] record : batch.records()) {
+            offset++;
+            try {
+                JsonNode change = objectMapper.readTree(record);
+                if (!ChangeEventService.AggregateType.ENROLLMENT.name().equals(change.path("aggregateType").asText())) {
+                    continue;
+                }
+                JsonNode payload = change.path("payload");
+                Long studentKey = payload.path("student").path("id").asLong();
+                Long courseKey = payload.path("course").path("id").asLong();
+                EnrollmentDelta delta = new EnrollmentDelta(
+                        payload.path("id").asLong(),
+                        studentIds.computeIfAbsent(studentKey,
+                                id -> studentRepository.findById(id).map(Student::getStudentId).orElse(null)),
+                        courseCodes.computeIfAbsent(courseKey,
+                                id -> courseRepository.findById(id).map(Course::getCode).orElse(null)),
+                        Enrollment.EnrollmentStatus.valueOf(payload.path("status").asText()),
+                        textOrNull(payload.path("grade")),
+                        textOrNull(payload.path("semester")),
+                        textOrNull(payload.path("academicYear")));
+                Set<ResponseBodyEmitter.DataWithMediaType> data = SseEmitter.event()
+                        .id(Long.toString(offset))
+                        .name(change.path("eventType").asText().toLowerCase())
+                        .data(objectMapper.writeValueAsString(delta))
+                        .build();
+                events.add(new StreamEvent(offset, delta, data));
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Skipping unreadable change log record before offset {}: {}", offset, e.getMessage());
+            }
+        }
+        return events;
+    }
+    
+    private static String textOrNull(JsonNode node) {
+        return node.isNull() || node.isMissingNode() ? null : node.asText();
+    }
+}
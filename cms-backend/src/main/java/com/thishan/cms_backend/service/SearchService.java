@@ -0,0 +1,177 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.SearchPage;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import com.thishan.cms_backend.search.NgramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+public class SearchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+    
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int LOAD_CHUNK = 1000;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    private final NgramIndex studentIndex = new NgramIndex();
+    private final NgramIndex courseIndex = new NgramIndex();
+    private volatile boolean ready;
+    
+    // Build both indexes from the database once the application has started. Writes committed meanwhile keep
+    // updating the indexes, and the rebuild leaves the rows they changed alone rather than put back older reads
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndexes() {
+        ready = false;
+        studentIndex.startRebuild();
+        courseIndex.startRebuild();
+        try {
+            forEachBatch(studentRepository::findByIdGreaterThanOrderByIdAsc, Student::getId,
+                    student -> studentIndex.putIfUnchanged(student.getId(), fields(student)));
+            forEachBatch(courseRepository::findByIdGreaterThanOrderByIdAsc, Course::getId,
+                    course -> courseIndex.putIfUnchanged(course.getId(), fields(course)));
+        } finally {
+            studentIndex.finishRebuild();
+            courseIndex.finishRebuild();
+        }
+        ready = true;
+        log.info("Search indexes built: {} students, {} courses", studentIndex.size(), courseIndex.size());
+    }
+    
+    // True once the indexes hold every row; callers fall back to database queries until then
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // Add or refresh a student in the index, as it is now, once the current transaction commits
+    public void indexStudent(Student student) {
+        Long id = student.getId();
+        NgramIndex.Field[] fields = fields(student);
+        AfterCommit.run(() -> studentIndex.put(id, fields));
+    }
+    
+    // Remove a student from the index once the current transaction commits
+    public void removeStudent(Long id) {
+        AfterCommit.run(() -> studentIndex.remove(id));
+    }
+    
+    // Add or refresh a course in the index, as it is now, once the current transaction commits
+    public void indexCourse(Course course) {
+        Long id = course.getId();
+        NgramIndex.Field[] fields = fields(course);
+        AfterCommit.run(() -> courseIndex.put(id, fields));
+    }
+    
+    // Remove a course from the index once the current transaction commits
+    public void removeCourse(Long id) {
+        AfterCommit.run(() -> courseIndex.remove(id));
+    }
+    
+    // Search students by ID, email or name, best matches first
+    public SearchPage<Student> searchStudents(String query, int page, int size) {
+        return searchPage(studentIndex, studentRepository, Student::getId, query, page, size);
+    }
+    
+    // Search courses by code, title or description, best matches first
+    public SearchPage<Course> searchCourses(String query, int page, int size) {
+        return searchPage(courseIndex, courseRepository, Course::getId, query, page, size);
+    }
+    
+    // All students matching the query, best matches first
+    public List<Student> findStudents(String query) {
+        return loadInOrder(studentRepository, Student::getId, ids(studentIndex.search(query)));
+    }
+    
+    // All courses matching the query, best matches first
+    public List<Course> findCourses(String query) {
+        return loadInOrder(courseRepository, Course::getId, ids(courseIndex.search(query)));
+    }
+    
+    private <T> SearchPage<T> searchPage(NgramIndex index, JpaRepository<T, Long> repository,
+                                         Function<T, Long> idOf, String query, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        int pageNumber = Math.max(page, 0);
+        List<NgramIndex.Hit> hits = index.search(query);
+        
+        int from = (int) Math.min((long) pageNumber * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        List<T> items = loadInOrder(repository, idOf, ids(hits.subList(from, to)));
+        return new SearchPage<>(items, pageNumber, pageSize, hits.size());
+    }
+    
+    // Load entities by ID and return them in the given order, skipping rows deleted since indexing
+    private static <T> List<T> loadInOrder(JpaRepository<T, Long> repository, Function<T, Long> idOf, List<Long> ids) {
+        Map<Long, T> byId = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += LOAD_CHUNK) {
+            for (T entity : repository.findAllById(ids.subList(i, Math.min(i + LOAD_CHUNK, ids.size())))) {
+                byId.put(idOf.apply(entity), entity);
+            }
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+    
+    // The indexed fields of a student, as it is now
+    private static NgramIndex.Field[] fields(Student student) {
+        return new NgramIndex.Field[] {
+                new NgramIndex.Field(student.getStudentId(), 3),
+                new NgramIndex.Field(student.getEmail(), 2),
+                new NgramIndex.Field(student.getFirstName(), 2),
+                new NgramIndex.Field(student.getLastName(), 2)};
+    }
+    
+    // The indexed fields of a course, as it is now
+    private static NgramIndex.Field[] fields(Course course) {
+        return new NgramIndex.Field[] {
+                new NgramIndex.Field(course.getCode(), 3),
+                new NgramIndex.Field(course.getTitle(), 2),
+                new NgramIndex.Field(course.getDescription(), 1)};
+    }
+    
+    private static List<Long> ids(List<NgramIndex.Hit> hits) {
+        return hits.stream().map(NgramIndex.Hit::id).toList();
+    }
+    
+    // Walk a table in ID order, one keyset batch at a time
+    private static <T> void forEachBatch(BiFunction<Long, Limit, List<T>> nextBatch, Function<T, Long> idOf,
+                                         Consumer<T> action) {
+        Long lastId = 0L;
+        List<T> batch;
+        do {
+            batch = nextBatch.apply(lastId, Limit.of(LOAD_CHUNK));
+            batch.forEach(action);
+            if (!batch.isEmpty()) {
+                lastId = idOf.apply(batch.get(batch.size() - 1));
+            }
+        } while (batch.size() == LOAD_CHUNK);
+    }
+}
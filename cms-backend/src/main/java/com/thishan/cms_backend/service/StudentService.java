@@ -1,11 +1,15 @@
 package com.thishan.cms_backend.service;
 
+import com.thishan.cms_backend.dto.MultiGetResult;
+import com.thishan.cms_backend.dto.ResourceVersion;
 import com.thishan.cms_backend.entity.Student;
 import com.thishan.cms_backend.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,27 +18,63 @@ public class StudentService {
     @Autowired
     private StudentRepository studentRepository;
     
+    @Autowired
+    private SearchService searchService;
+    
+    @Autowired
+    private ChangeEventService changeEventService;
+    
     // Get all students
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
     
+    // Get the version of the student list for conditional GETs, without loading it
+    @Transactional(readOnly = true)
+    public ResourceVersion getStudentsVersion() {
+        return studentRepository.findVersion();
+    }
+    
     // Get student by ID
+    @Transactional(readOnly = true)
     public Optional<Student> getStudentById(Long id) {
         return studentRepository.findById(id);
     }
     
+    // Get the version of a student for conditional GETs, without loading it
+    @Transactional(readOnly = true)
+    public ResourceVersion getStudentVersion(Long id) {
+        return studentRepository.findVersionById(id);
+    }
+    
     // Get student by student ID
+    @Transactional(readOnly = true)
     public Optional<Student> getStudentByStudentId(String studentId) {
         return studentRepository.findByStudentId(studentId);
     }
     
+    // Get students by a list of student IDs in request order, with the IDs that match no student
+    @Transactional(readOnly = true)
+    public MultiGetResult<String, Student> getStudentsByStudentIds(List<String> studentIds) {
+        List<String> keys = MultiGetResult.distinctKeys(studentIds);
+        return MultiGetResult.of(keys, studentRepository.findAllByStudentIds(keys));
+    }
+    
+    // Get the version of a student by student ID for conditional GETs, without loading it
+    @Transactional(readOnly = true)
+    public ResourceVersion getStudentVersionByStudentId(String studentId) {
+        return studentRepository.findVersionByStudentId(studentId);
+    }
+    
     // Get student by email
+    @Transactional(readOnly = true)
     public Optional<Student> getStudentByEmail(String email) {
         return studentRepository.findByEmail(email);
     }
     
     // Create a new student
+    @Transactional
     public Student createStudent(Student student) {
         // Check if student ID already exists
         if (studentRepository.existsByStudentId(student.getStudentId())) {
@@ -46,10 +86,14 @@ public class StudentService {
             throw new RuntimeException("Student with email " + student.getEmail() + " already exists");
         }
         
-        return studentRepository.save(student);
+        Student savedStudent = studentRepository.save(student);
+        changeEventService.record(ChangeEventService.EventType.CREATED, savedStudent);
+        searchService.indexStudent(savedStudent);
+        return savedStudent;
     }
     
     // Update an existing student
+    @Transactional
     public Student updateStudent(Long id, Student studentDetails) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
@@ -74,34 +118,53 @@ public class StudentService {
         student.setDepartment(studentDetails.getDepartment());
         student.setYearOfStudy(studentDetails.getYearOfStudy());
         
-        return studentRepository.save(student);
+        Student savedStudent = studentRepository.save(student);
+        changeEventService.record(ChangeEventService.EventType.UPDATED, savedStudent);
+        searchService.indexStudent(savedStudent);
+        return savedStudent;
     }
     
     // Delete a student
+    @Transactional
     public void deleteStudent(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
         studentRepository.delete(student);
+        changeEventService.record(ChangeEventService.EventType.DELETED, student);
+        searchService.removeStudent(student.getId());
     }
     
     // Get students by department
+    @Transactional(readOnly = true)
     public List<Student> getStudentsByDepartment(String department) {
         return studentRepository.findByDepartment(department);
     }
     
+    // Get students with only the given fields, optionally by department; only those columns are read
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentFields(List<String> fields, String department) {
+        return studentRepository.findStudentFields(fields, department);
+    }
+    
     // Get students by year of study
+    @Transactional(readOnly = true)
     public List<Student> getStudentsByYearOfStudy(Integer yearOfStudy) {
         return studentRepository.findByYearOfStudy(yearOfStudy);
     }
     
     // Get students by department and year
+    @Transactional(readOnly = true)
     public List<Student> getStudentsByDepartmentAndYear(String department, Integer yearOfStudy) {
         return studentRepository.findByDepartmentAndYearOfStudy(department, yearOfStudy);
     }
     
-    // Search students by name
+    // Search students by name, student ID or email
+    @Transactional(readOnly = true)
     public List<Student> searchStudentsByName(String keyword) {
-        return studentRepository.findByNameContainingIgnoreCase(keyword);
+        if (!searchService.isReady()) {
+            return studentRepository.findByNameContainingIgnoreCase(keyword);
+        }
+        return searchService.findStudents(keyword);
     }
     
     // Check if student exists by student ID
@@ -0,0 +1,208 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.Transcript;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.entity.StudentTermAggregate;
+import com.thishan.cms_backend.repository.EnrollmentRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import com.thishan.cms_backend.repository.StudentTermAggregateRepository;
+import com.thishan.cms_backend.transcript.GradeScale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps per-student, per-term credit and grade point totals up to date as grades and
+ * statuses change, so transcripts and GPAs are read from a handful of aggregate rows
+ * instead of the student's whole enrollment history.
+ */
+@Service
+public class TranscriptService {
+    
+    @Autowired
+    private StudentTermAggregateRepository aggregateRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    // What one enrollment adds to the totals of its term
+    public record Contribution(int attemptedCredits, int earnedCredits, BigDecimal qualityPoints) {
+        
+        public static final Contribution NONE = new Contribution(0, 0, BigDecimal.ZERO);
+        
+        Contribution plus(Contribution other) {
+            return new Contribution(attemptedCredits + other.attemptedCredits, earnedCredits + other.earnedCredits,
+                    qualityPoints.add(other.qualityPoints));
+        }
+        
+        Contribution minus(Contribution other) {
+            return new Contribution(attemptedCredits - other.attemptedCredits, earnedCredits - other.earnedCredits,
+                    qualityPoints.subtract(other.qualityPoints));
+        }
+        
+        boolean isZero() {
+            return attemptedCredits == 0 && earnedCredits == 0 && qualityPoints.signum() == 0;
+        }
+    }
+    
+    // A student's term; a missing semester or academic year is stored as ''
+    public record TermKey(Long studentId, String semester, String academicYear) {
+        
+        // Updates touch term rows in this order, so concurrent batches cannot deadlock on them
+        static final Comparator<TermKey> ORDER = Comparator.comparing(TermKey::studentId)
+                .thenComparing(TermKey::semester).thenComparing(TermKey::academicYear);
+        
+        public static TermKey of(Long studentId, String semester, String academicYear) {
+            return new TermKey(studentId, semester != null ? semester : "", academicYear != null ? academicYear : "");
+        }
+    }
+    
+    // Aggregate changes collected while enrollments are modified, applied together with one UPDATE per term
+    public static class Changes {
+        
+        private final Map<TermKey, Contribution> deltas = new TreeMap<>(TermKey.ORDER);
+        
+        // Record the change of an enrollment whose contribution was `before` until now
+        public void record(Enrollment enrollment, Contribution before) {
+            add(enrollment, contributionOf(enrollment).minus(before));
+        }
+        
+        // Record that an enrollment no longer counts, e.g. because it is being deleted
+        public void recordRemoval(Enrollment enrollment) {
+            add(enrollment, Contribution.NONE.minus(contributionOf(enrollment)));
+        }
+        
+        private void add(Enrollment enrollment, Contribution delta) {
+            if (!delta.isZero()) {
+                deltas.merge(TermKey.of(enrollment.getStudent().getId(), enrollment.getSemester(),
+                        enrollment.getAcademicYear()), delta, Contribution::plus);
+            }
+        }
+    }
+    
+    // Contribution of an enrollment as it is now; the course must be loaded
+    public static Contribution contributionOf(Enrollment enrollment) {
+        return contributionOf(enrollment.getStatus(), enrollment.getGrade(), enrollment.getCourse().getCredits());
+    }
+    
+    // Dropped enrollments and ungraded ones count for nothing
+    private static Contribution contributionOf(Enrollment.EnrollmentStatus status, String grade, Integer credits) {
+        if (status == Enrollment.EnrollmentStatus.DROPPED || grade == null || credits == null) {
+            return Contribution.NONE;
+        }
+        BigDecimal points = GradeScale.points(grade);
+        int earned = GradeScale.isPassing(grade) ? credits : 0;
+        if (points == null) {
+            return new Contribution(0, earned, BigDecimal.ZERO);
+        }
+        return new Contribution(credits, earned, points.multiply(BigDecimal.valueOf(credits)));
+    }
+    
+    // Apply the change of a single enrollment
+    @Transactional
+    public void recordChange(Enrollment enrollment, Contribution before) {
+        Changes changes = new Changes();
+        changes.record(enrollment, before);
+        apply(changes);
+    }
+    
+    // Apply collected changes in the caller's transaction
+    @Transactional
+    public void apply(Changes changes) {
+        LocalDateTime now = LocalDateTime.now();
+        changes.deltas.forEach((term, delta) -> {
+            if (addToTerm(term, delta, now) == 0) {
+                // First change in this term: lock the student so concurrent first changes create a single row
+                studentRepository.findByIdForUpdate(term.studentId());
+                if (addToTerm(term, delta, now) == 0) {
+                    insertTerm(term, delta);
+                }
+            }
+        });
+    }
+    
+    // Recompute terms from their enrollments, after changes made with set-based UPDATEs
+    @Transactional
+    public void refreshTerms(Collection<TermKey> terms) {
+        LocalDateTime now = LocalDateTime.now();
+        for (TermKey term : terms.stream().distinct().sorted(TermKey.ORDER).toList()) {
+            Contribution total = Contribution.NONE;
+            for (Object[] row : enrollmentRepository.findTermGrades(term.studentId(), term.semester(), term.academicYear())) {
+                total = total.plus(contributionOf((Enrollment.EnrollmentStatus) row[0], (String) row[1], (Integer) row[2]));
+            }
+            if (assignTerm(term, total, now) == 0 && !total.isZero()) {
+                studentRepository.findByIdForUpdate(term.studentId());
+                if (assignTerm(term, total, now) == 0) {
+                    insertTerm(term, total);
+                }
+            }
+        }
+    }
+    
+    // Recompute the terms of every graded enrollment in a course, e.g. after its credits changed
+    @Transactional
+    public void refreshCourseTerms(Long courseId) {
+        refreshTerms(toTermKeys(enrollmentRepository.findGradedTermsByCourseId(courseId)));
+    }
+    
+    // Convert (student id, semester, academic year) rows to term keys
+    public static List<TermKey> toTermKeys(List<Object[]> rows) {
+        List<TermKey> terms = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            terms.add(TermKey.of((Long) row[0], (String) row[1], (String) row[2]));
+        }
+        return terms;
+    }
+    
+    // Get a student's transcript by student ID
+    @Transactional(readOnly = true)
+    public Transcript getTranscript(String studentId) {
+        Student student = studentRepository.findByStudentId(studentId)
+                .orElseThrow(() -> new RuntimeException("Student not found with ID: " + studentId));
+        
+        List<Transcript.Term> terms = new ArrayList<>();
+        Contribution total = Contribution.NONE;
+        for (StudentTermAggregate row : aggregateRepository.findTermsByStudentId(student.getId())) {
+            terms.add(new Transcript.Term(row.getSemester(), row.getAcademicYear(), row.getAttemptedCredits(),
+                    row.getEarnedCredits(), row.getQualityPoints(), gpa(row.getQualityPoints(), row.getAttemptedCredits())));
+            total = total.plus(new Contribution(row.getAttemptedCredits(), row.getEarnedCredits(), row.getQualityPoints()));
+        }
+        return new Transcript(student.getStudentId(), student.getFirstName(), student.getLastName(),
+                total.attemptedCredits(), total.earnedCredits(), total.qualityPoints(),
+                gpa(total.qualityPoints(), total.attemptedCredits()), terms);
+    }
+    
+    private int addToTerm(TermKey term, Contribution delta, LocalDateTime now) {
+        return aggregateRepository.addToTerm(term.studentId(), term.semester(), term.academicYear(),
+                delta.attemptedCredits(), delta.earnedCredits(), delta.qualityPoints(), now);
+    }
+    
+    private int assignTerm(TermKey term, Contribution total, LocalDateTime now) {
+        return aggregateRepository.assignTerm(term.studentId(), term.semester(), term.academicYear(),
+                total.attemptedCredits(), total.earnedCredits(), total.qualityPoints(), now);
+    }
+    
+    private void insertTerm(TermKey term, Contribution total) {
+        aggregateRepository.save(new StudentTermAggregate(term.studentId(), term.semester(), term.academicYear(),
+                total.attemptedCredits(), total.earnedCredits(), total.qualityPoints()));
+    }
+    
+    private static BigDecimal gpa(BigDecimal qualityPoints, int attemptedCredits) {
+        return attemptedCredits == 0 ? null
+                : qualityPoints.divide(BigDecimal.valueOf(attemptedCredits), 2, RoundingMode.HALF_UP);
+    }
+}
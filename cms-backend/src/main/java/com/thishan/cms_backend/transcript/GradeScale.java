@@ -0,0 +1,48 @@
+package com.thishan.cms_backend.transcript;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps letter grades to grade points on a 4.0 scale. Letter grades count towards
+ * the GPA; pass grades (P, S) earn credits without affecting it; anything else
+ * (W, I, ...) is ignored. The V3 migration backfills with the same table.
+ */
+public final class GradeScale {
+    
+    private static final Map<String, BigDecimal> POINTS = Map.ofEntries(
+            Map.entry("A+", new BigDecimal("4.0")),
+            Map.entry("A", new BigDecimal("4.0")),
+            Map.entry("A-", new BigDecimal("3.7")),
+            Map.entry("B+", new BigDecimal("3.3")),
+            Map.entry("B", new BigDecimal("3.0")),
+            Map.entry("B-", new BigDecimal("2.7")),
+            Map.entry("C+", new BigDecimal("2.3")),
+            Map.entry("C", new BigDecimal("2.0")),
+            Map.entry("C-", new BigDecimal("1.7")),
+            Map.entry("D+", new BigDecimal("1.3")),
+            Map.entry("D", new BigDecimal("1.0")),
+            Map.entry("E", BigDecimal.ZERO),
+            Map.entry("F", BigDecimal.ZERO));
+    
+    private static final Set<String> PASS_GRADES = Set.of("P", "S");
+    
+    private GradeScale() {}
+    
+    // Grade points of a letter grade, or null when the grade does not count towards the GPA
+    public static BigDecimal points(String grade) {
+        return grade == null ? null : POINTS.get(normalize(grade));
+    }
+    
+    // Whether a grade earns the course credits
+    public static boolean isPassing(String grade) {
+        BigDecimal points = points(grade);
+        return points != null ? points.signum() > 0 : grade != null && PASS_GRADES.contains(normalize(grade));
+    }
+    
+    private static String normalize(String grade) {
+        return grade.trim().toUpperCase(Locale.ROOT);
+    }
+}
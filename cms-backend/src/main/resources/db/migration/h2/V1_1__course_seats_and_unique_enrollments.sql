@@ -0,0 +1,17 @@
+-- H2 version of db/migration/mysql/V1_1__course_seats_and_unique_enrollments.sql.
+
+-- Fails with "Data conversion error converting "Duplicate enrollments ..."" naming the
+-- pairs when a student is enrolled in a course more than once; NULL (no error) otherwise
+SELECT CAST('Duplicate enrollments, student_id/course_id: '
+            || LISTAGG(student_id || '/' || course_id, ', ') WITHIN GROUP (ORDER BY student_id, course_id)
+            AS INTEGER)
+FROM (SELECT student_id, course_id FROM enrollments
+      GROUP BY student_id, course_id HAVING COUNT(*) > 1) d;
+
+ALTER TABLE enrollments ADD CONSTRAINT uk_enrollments_student_course UNIQUE (student_id, course_id);
+
+ALTER TABLE courses ADD COLUMN capacity INTEGER;
+ALTER TABLE courses ADD COLUMN enrolled_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE courses SET enrolled_count = (SELECT COUNT(*) FROM enrollments e
+                                     WHERE e.course_id = courses.id AND e.status <> 'DROPPED');
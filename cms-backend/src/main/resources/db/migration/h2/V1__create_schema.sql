@@ -0,0 +1,47 @@
+-- H2 version of the MySQL schema in db/migration/mysql, for local runs and tests.
+
+CREATE TABLE courses (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    code VARCHAR(10) NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    description TEXT,
+    credits INTEGER NOT NULL,
+    semester VARCHAR(20),
+    department VARCHAR(50),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_courses_code UNIQUE (code)
+);
+
+CREATE TABLE students (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    student_id VARCHAR(20) NOT NULL,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone VARCHAR(15),
+    department VARCHAR(50),
+    year_of_study INTEGER,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_students_student_id UNIQUE (student_id),
+    CONSTRAINT uk_students_email UNIQUE (email)
+);
+
+CREATE TABLE enrollments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    enrollment_date TIMESTAMP(6) NOT NULL,
+    status ENUM ('COMPLETED','DROPPED','ENROLLED','FAILED','IN_PROGRESS') NOT NULL,
+    grade VARCHAR(5),
+    semester VARCHAR(20),
+    academic_year VARCHAR(10),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_enrollments_course FOREIGN KEY (course_id) REFERENCES courses (id)
+);
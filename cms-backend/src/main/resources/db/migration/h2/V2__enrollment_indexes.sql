@@ -0,0 +1,17 @@
+-- Secondary indexes for the enrollment queries. Lookups by student and the
+-- "already enrolled" check use uk_enrollments_student_course (student_id, course_id).
+
+-- Enrollments of a course, and seats taken per course (status <> 'DROPPED'), index-only
+CREATE INDEX idx_enrollments_course_status ON enrollments (course_id, status);
+
+-- Status filters, status + term filters and the per-status counts
+CREATE INDEX idx_enrollments_status_term ON enrollments (status, semester, academic_year);
+
+-- Semester and semester + academic year filters
+CREATE INDEX idx_enrollments_term ON enrollments (semester, academic_year);
+
+-- Recent enrollments on the dashboard
+CREATE INDEX idx_enrollments_enrollment_date ON enrollments (enrollment_date);
+
+-- Passing/failing grade counts on the dashboard
+CREATE INDEX idx_enrollments_grade ON enrollments (grade);
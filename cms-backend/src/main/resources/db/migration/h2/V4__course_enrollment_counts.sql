@@ -0,0 +1,16 @@
+-- H2 version of db/migration/mysql/V4__course_enrollment_counts.sql.
+
+CREATE TABLE course_enrollment_counts (
+    course_id BIGINT NOT NULL,
+    status ENUM ('COMPLETED','DROPPED','ENROLLED','FAILED','IN_PROGRESS') NOT NULL,
+    enrollment_count BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (course_id, status),
+    CONSTRAINT fk_course_enrollment_counts_course FOREIGN KEY (course_id) REFERENCES courses (id) ON DELETE CASCADE
+);
+
+INSERT INTO course_enrollment_counts (course_id, status, enrollment_count)
+SELECT c.id, s.status,
+       (SELECT COUNT(*) FROM enrollments e WHERE e.course_id = c.id AND e.status = s.status)
+FROM courses c
+CROSS JOIN (SELECT 'COMPLETED' AS status UNION ALL SELECT 'DROPPED' UNION ALL SELECT 'ENROLLED'
+            UNION ALL SELECT 'FAILED' UNION ALL SELECT 'IN_PROGRESS') s;
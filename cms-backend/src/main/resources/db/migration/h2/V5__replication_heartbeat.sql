@@ -0,0 +1,9 @@
+-- H2 version of db/migration/mysql/V5__replication_heartbeat.sql.
+
+CREATE TABLE replication_heartbeat (
+    id INT NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0);
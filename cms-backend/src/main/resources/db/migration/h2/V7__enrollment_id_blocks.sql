@@ -0,0 +1,9 @@
+-- H2 version of db/migration/mysql/V7__enrollment_id_blocks.sql.
+
+CREATE TABLE enrollment_id_blocks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    allocated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+DROP TABLE IF EXISTS id_generators;
@@ -0,0 +1,43 @@
+-- Changes made to the entities before the schema was managed by Flyway: course seat
+-- limits (see CourseSeatRepository) and one enrollment per student and course.
+-- Runs before V2 so the indexes and the V3/V4 backfills can rely on that key.
+
+-- A database with several enrollments of one student in one course cannot take the
+-- unique key. Which row to keep is not the migration's call (a retake may hold the only
+-- record of a grade), so it stops before changing anything and names the first pairs.
+-- List them all with
+--   SELECT student_id, course_id, COUNT(*) FROM enrollments
+--   GROUP BY student_id, course_id HAVING COUNT(*) > 1;
+-- merge or remove the extra rows, then remove the failed V1_1 entry from
+-- flyway_schema_history (or run flyway repair) and start the application again.
+DROP PROCEDURE IF EXISTS v1_1_check_duplicate_enrollments;
+
+DELIMITER //
+CREATE PROCEDURE v1_1_check_duplicate_enrollments()
+BEGIN
+    DECLARE pair_count INT;
+    DECLARE pairs TEXT;
+    DECLARE message VARCHAR(128);
+    SELECT COUNT(*), GROUP_CONCAT(CONCAT(student_id, '/', course_id) ORDER BY student_id, course_id SEPARATOR ', ')
+      INTO pair_count, pairs
+      FROM (SELECT student_id, course_id FROM enrollments
+            GROUP BY student_id, course_id HAVING COUNT(*) > 1) d;
+    IF pair_count > 0 THEN
+        -- MESSAGE_TEXT holds at most 128 characters
+        SET message = LEFT(CONCAT(pair_count, ' duplicate enrollments, student_id/course_id: ', pairs), 128);
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = message;
+    END IF;
+END //
+DELIMITER ;
+
+CALL v1_1_check_duplicate_enrollments();
+DROP PROCEDURE v1_1_check_duplicate_enrollments;
+
+ALTER TABLE enrollments ADD CONSTRAINT uk_enrollments_student_course UNIQUE (student_id, course_id);
+
+ALTER TABLE courses ADD COLUMN capacity INTEGER;
+ALTER TABLE courses ADD COLUMN enrolled_count INTEGER DEFAULT 0 NOT NULL;
+
+-- Seats taken so far; a NULL capacity means the course has no limit
+UPDATE courses SET enrolled_count = (SELECT COUNT(*) FROM enrollments e
+                                     WHERE e.course_id = courses.id AND e.status <> 'DROPPED');
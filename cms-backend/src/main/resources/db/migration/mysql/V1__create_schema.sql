@@ -0,0 +1,49 @@
+-- Schema previously created by Hibernate (ddl-auto: update) before the schema was
+-- managed by Flyway. Databases created that way are baselined at this version; the
+-- changes made since then start at V1_1.
+
+CREATE TABLE courses (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    code VARCHAR(10) NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    description TEXT,
+    credits INTEGER NOT NULL,
+    semester VARCHAR(20),
+    department VARCHAR(50),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_courses_code UNIQUE (code)
+) ENGINE=InnoDB;
+
+CREATE TABLE students (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id VARCHAR(20) NOT NULL,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    phone VARCHAR(15),
+    department VARCHAR(50),
+    year_of_study INTEGER,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_students_student_id UNIQUE (student_id),
+    CONSTRAINT uk_students_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE enrollments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    enrollment_date DATETIME(6) NOT NULL,
+    status ENUM ('COMPLETED','DROPPED','ENROLLED','FAILED','IN_PROGRESS') NOT NULL,
+    grade VARCHAR(5),
+    semester VARCHAR(20),
+    academic_year VARCHAR(10),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_enrollments_course FOREIGN KEY (course_id) REFERENCES courses (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,40 @@
+-- Per-student, per-term grade aggregates behind transcripts and GPA (see TranscriptService).
+-- Enrollments without a semester or academic year are aggregated under ''.
+
+CREATE TABLE student_term_aggregates (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    semester VARCHAR(20) NOT NULL,
+    academic_year VARCHAR(10) NOT NULL,
+    attempted_credits INTEGER DEFAULT 0 NOT NULL,
+    earned_credits INTEGER DEFAULT 0 NOT NULL,
+    quality_points DECIMAL(10,2) DEFAULT 0 NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_term_aggregates_term UNIQUE (student_id, semester, academic_year),
+    CONSTRAINT fk_student_term_aggregates_student FOREIGN KEY (student_id) REFERENCES students (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Backfill from the grades recorded so far; the grade points must match GradeScale
+INSERT INTO student_term_aggregates (student_id, semester, academic_year, attempted_credits, earned_credits,
+                                     quality_points, updated_at)
+SELECT g.student_id, g.semester, g.academic_year,
+       SUM(CASE WHEN g.points IS NULL THEN 0 ELSE g.credits END),
+       SUM(CASE WHEN g.points > 0 OR g.passed = 1 THEN g.credits ELSE 0 END),
+       SUM(COALESCE(g.points * g.credits, 0)),
+       CURRENT_TIMESTAMP
+FROM (
+    SELECT e.student_id, COALESCE(e.semester, '') AS semester, COALESCE(e.academic_year, '') AS academic_year,
+           c.credits,
+           CASE UPPER(TRIM(e.grade))
+               WHEN 'A+' THEN 4.0 WHEN 'A' THEN 4.0 WHEN 'A-' THEN 3.7
+               WHEN 'B+' THEN 3.3 WHEN 'B' THEN 3.0 WHEN 'B-' THEN 2.7
+               WHEN 'C+' THEN 2.3 WHEN 'C' THEN 2.0 WHEN 'C-' THEN 1.7
+               WHEN 'D+' THEN 1.3 WHEN 'D' THEN 1.0 WHEN 'E' THEN 0.0 WHEN 'F' THEN 0.0
+               ELSE NULL END AS points,
+           CASE WHEN UPPER(TRIM(e.grade)) IN ('P', 'S') THEN 1 ELSE 0 END AS passed
+    FROM enrollments e
+    JOIN courses c ON c.id = e.course_id
+    WHERE e.status <> 'DROPPED' AND e.grade IS NOT NULL
+) g
+GROUP BY g.student_id, g.semester, g.academic_year;
@@ -0,0 +1,18 @@
+-- Materialized enrollment counts per course and status (see EnrollmentCounterService).
+-- Every course has one row per status; the reconciliation job adds rows for courses
+-- created outside the application and repairs drifted counts.
+
+CREATE TABLE course_enrollment_counts (
+    course_id BIGINT NOT NULL,
+    status ENUM ('COMPLETED','DROPPED','ENROLLED','FAILED','IN_PROGRESS') NOT NULL,
+    enrollment_count BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (course_id, status),
+    CONSTRAINT fk_course_enrollment_counts_course FOREIGN KEY (course_id) REFERENCES courses (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+INSERT INTO course_enrollment_counts (course_id, status, enrollment_count)
+SELECT c.id, s.status,
+       (SELECT COUNT(*) FROM enrollments e WHERE e.course_id = c.id AND e.status = s.status)
+FROM courses c
+CROSS JOIN (SELECT 'COMPLETED' AS status UNION ALL SELECT 'DROPPED' UNION ALL SELECT 'ENROLLED'
+            UNION ALL SELECT 'FAILED' UNION ALL SELECT 'IN_PROGRESS') s;
@@ -0,0 +1,11 @@
+-- Replication heartbeat (see ReplicaLagMonitor). The application stamps the single row
+-- on the primary and reads it back from the read replica; the difference is the
+-- replica's lag, and reads fall back to the primary while it is too large.
+
+CREATE TABLE replication_heartbeat (
+    id INT NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0);
@@ -0,0 +1,15 @@
+-- Transactional outbox of entity changes (see ChangeEventService). Writes insert their
+-- events in the same transaction; the publisher appends them to the change log and
+-- deletes them, so the table only holds events that have not been published yet.
+-- The auto-increment ID orders events: writes to the same row hold its lock when
+-- they insert their events, so their IDs follow the order the writes committed in.
+
+CREATE TABLE outbox_events (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    aggregate_type VARCHAR(20) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
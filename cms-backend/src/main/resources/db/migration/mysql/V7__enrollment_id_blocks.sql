@@ -0,0 +1,12 @@
+-- Enrollment ID blocks (see EnrollmentIdGenerator). Each row hands out
+-- Enrollment.ID_ALLOCATION_SIZE IDs; IdGeneratorInitializer moves the counter past
+-- enrollments created before the table existed. It replaces the id_generators row,
+-- whose block fetches needed a second pooled connection.
+
+CREATE TABLE enrollment_id_blocks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    allocated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+DROP TABLE IF EXISTS id_generators;
@@ -0,0 +1,22 @@
+-- Sample courses and students for the development databases (formerly in init.sql).
+-- Re-running it leaves existing rows alone.
+
+INSERT IGNORE INTO courses (code, title, description, credits, semester, department, created_at, updated_at) VALUES
+('CS101', 'Introduction to Computer Science', 'Basic concepts of computer science and programming', 3, 'Fall', 'Computer Science', NOW(), NOW()),
+('CS102', 'Data Structures and Algorithms', 'Fundamental data structures and algorithm design', 4, 'Spring', 'Computer Science', NOW(), NOW()),
+('MATH101', 'Calculus I', 'Differential and integral calculus', 4, 'Fall', 'Mathematics', NOW(), NOW()),
+('ENG101', 'English Composition', 'Academic writing and communication skills', 3, 'Fall', 'English', NOW(), NOW()),
+('PHY101', 'General Physics I', 'Mechanics and thermodynamics', 4, 'Fall', 'Physics', NOW(), NOW()),
+('CS201', 'Object-Oriented Programming', 'Advanced programming concepts using OOP', 3, 'Spring', 'Computer Science', NOW(), NOW()),
+('CS301', 'Database Systems', 'Database design, SQL, and database management', 3, 'Fall', 'Computer Science', NOW(), NOW()),
+('CS401', 'Software Engineering', 'Software development lifecycle and methodologies', 4, 'Spring', 'Computer Science', NOW(), NOW());
+
+INSERT IGNORE INTO students (student_id, first_name, last_name, email, phone, department, year_of_study, created_at, updated_at) VALUES
+('STU001', 'John', 'Doe', 'john.doe@university.edu', '123-456-7890', 'Computer Science', 2, NOW(), NOW()),
+('STU002', 'Jane', 'Smith', 'jane.smith@university.edu', '123-456-7891', 'Computer Science', 3, NOW(), NOW()),
+('STU003', 'Mike', 'Johnson', 'mike.johnson@university.edu', '123-456-7892', 'Mathematics', 1, NOW(), NOW()),
+('STU004', 'Sarah', 'Wilson', 'sarah.wilson@university.edu', '123-456-7893', 'Physics', 2, NOW(), NOW()),
+('STU005', 'David', 'Brown', 'david.brown@university.edu', '123-456-7894', 'Computer Science', 4, NOW(), NOW()),
+('STU006', 'Emily', 'Davis', 'emily.davis@university.edu', '123-456-7895', 'English', 1, NOW(), NOW()),
+('STU007', 'Chris', 'Miller', 'chris.miller@university.edu', '123-456-7896', 'Computer Science', 3, NOW(), NOW()),
+('STU008', 'Lisa', 'Garcia', 'lisa.garcia@university.edu', '123-456-7897', 'Mathematics', 2, NOW(), NOW());
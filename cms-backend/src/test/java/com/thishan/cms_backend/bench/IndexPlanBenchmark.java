@@ -0,0 +1,201 @@
+package com.thishan.cms_backend.bench;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Query plans and timings of the enrollment queries before and after the V2 index migration.
+ * Not part of the regular test run; start it explicitly:
+ *
+ *   mvn test -Dtest=IndexPlanBenchmark -Dbench.enrollments=1000000
+ *
+ * Migrates an in-memory H2 database to V1, loads bench.enrollments enrollments (10 per student,
+ * 500 courses), then plans and times the SQL behind the repository queries, applies the
+ * remaining migrations and repeats. Results are printed and written to
+ * target/index-plan-benchmark.json.
+ */
+class IndexPlanBenchmark {
+
+	private static final int ENROLLMENTS = Integer.getInteger("bench.enrollments", 1_000_000);
+	private static final int RUNS = Integer.getInteger("bench.runs", 15);
+	private static final int COURSES = 500;
+	private static final int ENROLLMENTS_PER_STUDENT = 10;
+	private static final int STUDENTS = ENROLLMENTS / ENROLLMENTS_PER_STUDENT;
+
+	private static final String URL = "jdbc:h2:mem:index-plan;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE";
+	private static final String FETCH_JOINS = "SELECT e.*, s.*, c.* FROM enrollments e " +
+			"JOIN students s ON s.id = e.student_id JOIN courses c ON c.id = e.course_id ";
+	private static final Pattern INDEX_IN_PLAN = Pattern.compile("/\\* PUBLIC\\.([A-Za-z0-9_.]+)");
+
+	// SQL equivalent of each repository query, with the parameters used for planning and timing
+	record BenchQuery(String name, String sql, Object... params) {}
+
+	record Measurement(String plan, Set<String> indexes, double medianMillis) {}
+
+	private static List<BenchQuery> queries() {
+		Timestamp lastWeek = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0).minusDays(7));
+		return List.of(
+				new BenchQuery("findByStudentId", FETCH_JOINS + "WHERE s.student_id = ?", "S" + (STUDENTS / 2)),
+				new BenchQuery("findByCourseCode", FETCH_JOINS + "WHERE c.code = ?", "C" + (COURSES / 2)),
+				new BenchQuery("existsByStudentAndCourseIds",
+						"SELECT COUNT(*) FROM enrollments e WHERE e.student_id = ? AND e.course_id = ?", STUDENTS / 2, 1),
+				new BenchQuery("findPageAfterId (status, semester, year)", FETCH_JOINS + "WHERE e.id > ? " +
+						"AND (CAST(? AS VARCHAR) IS NULL OR e.status = ?) AND (CAST(? AS VARCHAR) IS NULL OR e.semester = ?) " +
+						"AND (CAST(? AS VARCHAR) IS NULL OR e.academic_year = ?) ORDER BY e.id LIMIT 50",
+						ENROLLMENTS / 2, "DROPPED", "DROPPED", "Fall", "Fall", "2022-2023", "2022-2023"),
+				new BenchQuery("findByStatus (count)", "SELECT COUNT(*) FROM enrollments e WHERE e.status = ?", "DROPPED"),
+				new BenchQuery("findBySemesterAndAcademicYear (count)",
+						"SELECT COUNT(*) FROM enrollments e WHERE e.semester = ? AND e.academic_year = ?", "Fall", "2022-2023"),
+				new BenchQuery("countGroupByStatus", "SELECT e.status, COUNT(*) FROM enrollments e GROUP BY e.status"),
+				new BenchQuery("seats taken per course",
+						"SELECT COUNT(*) FROM enrollments e WHERE e.course_id = ? AND e.status <> 'DROPPED'", COURSES / 2),
+				new BenchQuery("countByEnrollmentDateAfter",
+						"SELECT COUNT(*) FROM enrollments e WHERE e.enrollment_date > ?", lastWeek),
+				new BenchQuery("countByGradeIn",
+						"SELECT COUNT(*) FROM enrollments e WHERE e.grade IN ('A', 'B', 'C')"));
+	}
+
+	@Test
+	void compareQueryPlans() throws Exception {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+			migrate("1");
+			long loadStart = System.nanoTime();
+			seed(connection);
+			System.out.printf("Loaded %d enrollments in %.1f s%n", ENROLLMENTS, (System.nanoTime() - loadStart) / 1e9);
+
+			// Discarded pass so that JIT warm-up does not count against the first measurements
+			measureAll(connection);
+			List<Measurement> before = measureAll(connection);
+			long migrateStart = System.nanoTime();
+			migrate(null);
+			double migrateSeconds = (System.nanoTime() - migrateStart) / 1e9;
+			System.out.printf("Applied the index migration in %.1f s%n", migrateSeconds);
+			List<Measurement> after = measureAll(connection);
+
+			report(before, after, migrateSeconds);
+		}
+	}
+
+	private void migrate(String target) {
+		var configuration = Flyway.configure()
+				.dataSource(URL, "sa", "")
+				.locations("classpath:db/migration/h2");
+		if (target != null) {
+			configuration.target(target);
+		}
+		configuration.load().migrate();
+	}
+
+	private void seed(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO courses (code, title, credits, semester, department, created_at) " +
+					"SELECT 'C' || X, 'Course ' || X, 3, CASEWHEN(MOD(X, 2) = 0, 'Fall', 'Spring'), 'Dept' || MOD(X, 10), " +
+					"CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + COURSES + ")");
+			statement.execute("INSERT INTO students (student_id, first_name, last_name, email, department, year_of_study, created_at) " +
+					"SELECT 'S' || X, 'First' || X, 'Last' || X, 's' || X || '@university.edu', 'Dept' || MOD(X, 10), " +
+					"1 + MOD(X, 4), CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + STUDENTS + ")");
+			// Row X: student 1 + (X-1) mod STUDENTS; the k-th row of a student (k = (X-1) / STUDENTS)
+			// takes course 1 + (student + 50k) mod COURSES, so a student never repeats a course
+			statement.execute("INSERT INTO enrollments (id, student_id, course_id, enrollment_date, status, grade, " +
+					"semester, academic_year, created_at) " +
+					"SELECT X, 1 + MOD(X - 1, " + STUDENTS + "), " +
+					"1 + MOD(MOD(X - 1, " + STUDENTS + ") + 50 * ((X - 1) / " + STUDENTS + "), " + COURSES + "), " +
+					"DATEADD('MINUTE', -X, TIMESTAMP '2025-01-01 00:00:00'), " +
+					"CASE MOD(X, 10) WHEN 6 THEN 'COMPLETED' WHEN 7 THEN 'COMPLETED' WHEN 8 THEN 'DROPPED' " +
+					"WHEN 9 THEN 'FAILED' ELSE 'ENROLLED' END, " +
+					"CASE MOD(X, 10) WHEN 6 THEN 'A' WHEN 7 THEN 'B' WHEN 9 THEN 'F' ELSE NULL END, " +
+					"CASEWHEN(MOD(X, 2) = 0, 'Fall', 'Spring'), (2020 + MOD(X / 7, 5)) || '-' || (2021 + MOD(X / 7, 5)), " +
+					"CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + ENROLLMENTS + ")");
+			statement.execute("ANALYZE");
+		}
+	}
+
+	private List<Measurement> measureAll(Connection connection) throws SQLException {
+		List<Measurement> measurements = new ArrayList<>();
+		for (BenchQuery query : queries()) {
+			measurements.add(measure(connection, query));
+		}
+		return measurements;
+	}
+
+	private Measurement measure(Connection connection, BenchQuery query) throws SQLException {
+		String plan;
+		try (PreparedStatement explain = prepare(connection, "EXPLAIN " + query.sql(), query.params());
+			 ResultSet rs = explain.executeQuery()) {
+			rs.next();
+			plan = rs.getString(1);
+		}
+		Set<String> indexes = new LinkedHashSet<>();
+		Matcher matcher = INDEX_IN_PLAN.matcher(plan);
+		while (matcher.find()) {
+			indexes.add(matcher.group(1));
+		}
+
+		long[] timings = new long[RUNS];
+		try (PreparedStatement statement = prepare(connection, query.sql(), query.params())) {
+			for (int run = -3; run < RUNS; run++) {
+				long start = System.nanoTime();
+				try (ResultSet rs = statement.executeQuery()) {
+					while (rs.next()) {
+						// Read every row, as the application does
+					}
+				}
+				if (run >= 0) {
+					timings[run] = System.nanoTime() - start;
+				}
+			}
+		}
+		Arrays.sort(timings);
+		return new Measurement(plan, indexes, timings[RUNS / 2] / 1_000_000.0);
+	}
+
+	private PreparedStatement prepare(Connection connection, String sql, Object[] params) throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(sql);
+		for (int i = 0; i < params.length; i++) {
+			statement.setObject(i + 1, params[i]);
+		}
+		return statement;
+	}
+
+	private void report(List<Measurement> before, List<Measurement> after, double migrateSeconds) throws Exception {
+		List<BenchQuery> queries = queries();
+		StringBuilder json = new StringBuilder(String.format(Locale.ROOT,
+				"{\"enrollments\":%d,\"indexMigrationSeconds\":%.1f,\"queries\":[%n", ENROLLMENTS, migrateSeconds));
+		System.out.printf("%n%-42s %12s %12s  %-34s %s%n", "query", "before ms", "after ms", "index before", "index after");
+		for (int i = 0; i < queries.size(); i++) {
+			Measurement b = before.get(i);
+			Measurement a = after.get(i);
+			System.out.printf("%-42s %12.2f %12.2f  %-34s %s%n", queries.get(i).name(), b.medianMillis(), a.medianMillis(),
+					describe(b.indexes()), describe(a.indexes()));
+			json.append(String.format(Locale.ROOT,
+					"  {\"query\":\"%s\",\"beforeMs\":%.2f,\"afterMs\":%.2f,\"indexesBefore\":\"%s\",\"indexesAfter\":\"%s\"}%s%n",
+					queries.get(i).name(), b.medianMillis(), a.medianMillis(), describe(b.indexes()), describe(a.indexes()),
+					i < queries.size() - 1 ? "," : ""));
+		}
+		json.append("]}\n");
+		Files.writeString(Path.of("target", "index-plan-benchmark.json"), json);
+	}
+
+	private static String describe(Set<String> indexes) {
+		return indexes.isEmpty() ? "-" : String.join(", ", indexes).toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,197 @@
+package com.thishan.cms_backend.bench;
+
+import com.thishan.cms_backend.CmsBackendApplication;
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.repository.CourseRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import com.thishan.cms_backend.service.EnrollmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the platform thread pool with virtual threads on the enrollment endpoints.
+ * Not part of the regular test run; start it explicitly (on Java 21+ to include virtual threads):
+ *
+ *   mvn test -Dtest=ThreadModelBenchmark -Dbench.concurrency=1000 -Dbench.seconds=30
+ *
+ * Each mode boots the application on a fresh in-memory H2 database, seeds it and drives a
+ * closed-loop mix of 80% GET /enrollments/student/{id} and 20% POST /enrollments from
+ * bench.concurrency clients. Results are printed and written to target/thread-model-benchmark.json.
+ */
+class ThreadModelBenchmark {
+
+	private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 500);
+	private static final int WARMUP_SECONDS = Integer.getInteger("bench.warmupSeconds", 5);
+	private static final int SECONDS = Integer.getInteger("bench.seconds", 20);
+	private static final int STUDENTS = Integer.getInteger("bench.students", 2000);
+	private static final int COURSES = Integer.getInteger("bench.courses", 40);
+	private static final int ENROLLMENTS_PER_STUDENT = 5;
+
+	record Samples(long[] sortedLatencies, long errors) {}
+
+	record Result(String mode, long requests, long errors, double throughput, double p50Millis, double p99Millis) {}
+
+	@Test
+	void compareThreadModels() throws Exception {
+		List<Result> results = new ArrayList<>();
+		results.add(run(false));
+		if (Runtime.version().feature() >= 21) {
+			results.add(run(true));
+		} else {
+			System.out.println("Java " + Runtime.version().feature() + " has no virtual threads; only the platform mode was measured");
+		}
+
+		StringBuilder json = new StringBuilder("[\n");
+		System.out.printf("%n%-10s %10s %8s %12s %10s %10s%n", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+		for (int i = 0; i < results.size(); i++) {
+			Result r = results.get(i);
+			System.out.printf("%-10s %10d %8d %12.1f %10.2f %10.2f%n",
+					r.mode(), r.requests(), r.errors(), r.throughput(), r.p50Millis(), r.p99Millis());
+			json.append(String.format(Locale.ROOT,
+					"  {\"mode\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f}%s%n",
+					r.mode(), CONCURRENCY, r.requests(), r.errors(), r.throughput(), r.p50Millis(), r.p99Millis(),
+					i < results.size() - 1 ? "," : ""));
+		}
+		json.append("]\n");
+		Files.writeString(Path.of("target", "thread-model-benchmark.json"), json);
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		String mode = virtualThreads ? "virtual" : "platform";
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CmsBackendApplication.class)
+				.run(
+						"--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.sql.init.mode=never",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.com.thishan.cms_backend=WARN",
+						"--logging.level.org.springframework.web=WARN",
+						"--logging.level.org.hibernate.SQL=WARN",
+						"--spring.threads.virtual.enabled=" + virtualThreads)) {
+			seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			String baseUrl = "http://localhost:" + port + "/api";
+
+			drive(baseUrl, WARMUP_SECONDS);
+			return summarize(mode, drive(baseUrl, SECONDS), SECONDS);
+		}
+	}
+
+	private void seed(ConfigurableApplicationContext context) {
+		StudentRepository students = context.getBean(StudentRepository.class);
+		CourseRepository courses = context.getBean(CourseRepository.class);
+		EnrollmentService enrollments = context.getBean(EnrollmentService.class);
+
+		List<Course> courseRows = new ArrayList<>();
+		for (int c = 0; c < COURSES; c++) {
+			courseRows.add(new Course("C" + c, "Course " + c, "Description of course " + c, 3, "Fall", "Dept" + (c % 5)));
+		}
+		courses.saveAll(courseRows);
+
+		List<Student> studentRows = new ArrayList<>();
+		for (int s = 0; s < STUDENTS; s++) {
+			studentRows.add(new Student("S" + s, "First" + s, "Last" + s, "s" + s + "@university.edu", null, "Dept" + (s % 5), 1 + s % 4));
+		}
+		students.saveAll(studentRows);
+
+		List<BulkEnrollmentRow> rows = new ArrayList<>();
+		for (int s = 0; s < STUDENTS; s++) {
+			for (int k = 0; k < ENROLLMENTS_PER_STUDENT; k++) {
+				rows.add(new BulkEnrollmentRow("S" + s, "C" + ((s + k * 7) % COURSES), "Fall", "2024-2025"));
+			}
+			if (rows.size() >= EnrollmentService.MAX_BULK_SIZE - ENROLLMENTS_PER_STUDENT) {
+				enrollments.createEnrollments(rows);
+				rows.clear();
+			}
+		}
+		enrollments.createEnrollments(rows);
+	}
+
+	// Run the closed-loop client mix for the given duration and collect per-request latencies in nanoseconds
+	private Samples drive(String baseUrl, int seconds) throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		long[][] latencies = new long[CONCURRENCY][];
+		AtomicLong errors = new AtomicLong();
+		CountDownLatch done = new CountDownLatch(CONCURRENCY);
+		ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+		for (int t = 0; t < CONCURRENCY; t++) {
+			int clientIndex = t;
+			clients.execute(() -> {
+				long[] samples = new long[1024];
+				int count = 0;
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					HttpRequest request = random.nextInt(10) < 8
+							? HttpRequest.newBuilder(URI.create(baseUrl + "/enrollments/student/S" + random.nextInt(STUDENTS))).GET().build()
+							: HttpRequest.newBuilder(URI.create(baseUrl + "/enrollments"))
+									.header("Content-Type", "application/json")
+									.POST(HttpRequest.BodyPublishers.ofString("{\"studentId\":\"S" + random.nextInt(STUDENTS) +
+											"\",\"courseCode\":\"C" + random.nextInt(COURSES) + "\",\"semester\":\"Fall\",\"academicYear\":\"2024-2025\"}"))
+									.build();
+					long start = System.nanoTime();
+					try {
+						int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+						// 400 is the expected answer for an enrollment that already exists
+						if (status >= 500) {
+							errors.incrementAndGet();
+						}
+					} catch (IOException e) {
+						errors.incrementAndGet();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+					if (count == samples.length) {
+						samples = Arrays.copyOf(samples, count * 2);
+					}
+					samples[count++] = System.nanoTime() - start;
+				}
+				latencies[clientIndex] = Arrays.copyOf(samples, count);
+				done.countDown();
+			});
+		}
+		done.await();
+		clients.shutdown();
+		return new Samples(Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray(), errors.get());
+	}
+
+	private Result summarize(String mode, Samples samples, int seconds) {
+		long[] sorted = samples.sortedLatencies();
+		if (sorted.length == 0) {
+			return new Result(mode, 0, samples.errors(), 0, 0, 0);
+		}
+		return new Result(mode, sorted.length, samples.errors(), sorted.length / (double) seconds,
+				percentile(sorted, 0.50) / 1_000_000.0, percentile(sorted, 0.99) / 1_000_000.0);
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+	}
+}
@@ -0,0 +1,133 @@
+package com.thishan.cms_backend.changelog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedLogTest {
+
+	@TempDir
+	Path directory;
+
+	private static List<byte[]> records(int from, int count) {
+		List<byte[]> records = new ArrayList<>();
+		for (int i = from; i < from + count; i++) {
+			records.add(("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+		}
+		return records;
+	}
+
+	private static List<String> text(SegmentedLog.Batch batch) {
+		return batch.records().stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+		}
+	}
+
+	@Test
+	void readsFromAnyOffsetAcrossSegments() throws IOException {
+		try (SegmentedLog log = SegmentedLog.open(directory, 4096)) {
+			assertEquals(0, log.append(records(0, 600)));
+			assertEquals(600, log.append(records(600, 400)));
+
+			assertTrue(segmentFiles().size() > 1);
+			SegmentedLog.Batch batch = log.read(555, 300);
+			assertEquals(555, batch.firstOffset());
+			assertEquals(855, batch.nextOffset());
+			assertEquals("{\"n\":555}", text(batch).get(0));
+			assertEquals("{\"n\":854}", text(batch).get(299));
+
+			SegmentedLog.Batch tail = log.read(990, 100);
+			assertEquals(10, tail.records().size());
+			assertEquals(1000, tail.nextOffset());
+			assertTrue(log.read(1000, 100).records().isEmpty());
+		}
+	}
+
+	@Test
+	void reopeningCutsOffAnIncompleteRecordAndContinuesTheOffsets() throws IOException {
+		try (SegmentedLog log = SegmentedLog.open(directory, 1 << 20)) {
+			log.append(records(0, 300));
+		}
+		Path last = segmentFiles().get(segmentFiles().size() - 1);
+		Files.write(last, "{\"n\":torn".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (SegmentedLog log = SegmentedLog.open(directory, 1 << 20)) {
+			assertEquals(300, log.nextOffset());
+			assertEquals(300, log.append(records(300, 1)));
+			assertEquals(List.of("{\"n\":299}", "{\"n\":300}"), text(log.read(299, 10)));
+		}
+	}
+
+	@Test
+	void retentionDeletesOldSegmentsFromTheHead() throws IOException {
+		try (SegmentedLog log = SegmentedLog.open(directory, 1024)) {
+			log.append(records(0, 500));
+			List<Path> segments = segmentFiles();
+			Files.setLastModifiedTime(segments.get(0), FileTime.from(Instant.now().minusSeconds(3600)));
+			Files.setLastModifiedTime(segments.get(1), FileTime.from(Instant.now().minusSeconds(3600)));
+
+			assertEquals(2, log.deleteSegmentsBefore(Instant.now().minusSeconds(60)));
+			long start = log.startOffset();
+			assertTrue(start > 0);
+			SegmentedLog.Batch batch = log.read(0, 10);
+			assertEquals(start, batch.firstOffset());
+			assertEquals("{\"n\":" + start + "}", text(batch).get(0));
+		}
+	}
+
+	@Test
+	void readsAlongsideAppendsSeeOnlyCompleteAppends() throws Exception {
+		try (SegmentedLog log = SegmentedLog.open(directory, 4096)) {
+			ExecutorService appender = Executors.newSingleThreadExecutor();
+			Future<?> appends = appender.submit(() -> {
+				for (int i = 0; i < 2000; i += 10) {
+					log.append(records(i, 10));
+				}
+				return null;
+			});
+			long offset = 0;
+			while (offset < 2000) {
+				SegmentedLog.Batch batch = log.read(offset, 97);
+				List<String> read = text(batch);
+				for (int i = 0; i < read.size(); i++) {
+					assertEquals("{\"n\":" + (offset + i) + "}", read.get(i));
+				}
+				// A batch that stops short ends where an append ended
+				if (read.size() < 97) {
+					assertEquals(0, batch.nextOffset() % 10);
+				}
+				offset = batch.nextOffset();
+			}
+			appends.get();
+			appender.shutdown();
+		}
+	}
+
+	@Test
+	void aDirectoryCanOnlyBeOpenedOnce() throws IOException {
+		try (SegmentedLog log = SegmentedLog.open(directory, 1024)) {
+			assertThrows(IOException.class, () -> SegmentedLog.open(directory, 1024));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.thishan.cms_backend.config;
+
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.service.CourseService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the read replica. Nothing
+ * replicates between them, so each holds a course the other lacks and the heartbeat on
+ * the replica is set by hand.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"cms.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+		"cms.datasource.replica.username=sa",
+		"cms.datasource.replica.password=",
+		"cms.datasource.routing.heartbeat-interval=PT1H",
+		"cms.datasource.routing.max-replica-lag=PT5S"
+})
+class ReadWriteRoutingTest {
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Autowired
+	private ReplicaLagMonitor replicaLagMonitor;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		Flyway.configure().dataSource(replicaDataSource).locations("classpath:db/migration/h2").load().migrate();
+		primary = new JdbcTemplate(primaryDataSource);
+		replica = new JdbcTemplate(replicaDataSource);
+		insertCourse(primary, 9001L, "PRIM1");
+		insertCourse(replica, 9002L, "REPL1");
+	}
+
+	private static void insertCourse(JdbcTemplate jdbc, Long id, String code) {
+		jdbc.update("MERGE INTO courses (id, code, title, credits, enrolled_count) KEY (id) VALUES (?, ?, ?, 3, 0)",
+				id, code, "Routing " + code);
+	}
+
+	private List<String> readOnlyCourseCodes() {
+		return courseService.getCoursesByCreditsRange(3, 3).stream().map(Course::getCode).toList();
+	}
+
+	private void setReplicaHeartbeat(long beatMillis) {
+		replica.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", beatMillis);
+		replicaLagMonitor.check();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplicaWhileItIsCurrent() {
+		setReplicaHeartbeat(System.currentTimeMillis());
+
+		assertTrue(replicaLagMonitor.isReplicaUsable());
+		assertTrue(readOnlyCourseCodes().contains("REPL1"));
+		assertFalse(readOnlyCourseCodes().contains("PRIM1"));
+
+		// Read-only methods joining a read-write transaction, and work outside a transaction stay on the primary
+		assertTrue(transactionTemplate.execute(status -> readOnlyCourseCodes()).contains("PRIM1"));
+		assertTrue(courseService.existsByCode("PRIM1"));
+		assertFalse(courseService.existsByCode("REPL1"));
+
+		// Catalog cache entries are read-only but loaded from the primary
+		assertTrue(courseService.getCourseByCode("PRIM1").isPresent());
+		assertTrue(courseService.getCourseByCode("REPL1").isEmpty());
+	}
+
+	@Test
+	void readsFallBackToThePrimaryWhenTheReplicaLags() {
+		setReplicaHeartbeat(System.currentTimeMillis() - 60_000);
+
+		assertFalse(replicaLagMonitor.isReplicaUsable());
+		assertTrue(readOnlyCourseCodes().contains("PRIM1"));
+		assertFalse(readOnlyCourseCodes().contains("REPL1"));
+
+		// The primary was stamped by the check
+		assertTrue(primary.queryForObject("SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class) > 0);
+	}
+}
@@ -0,0 +1,81 @@
+package com.thishan.cms_backend.controller;
+
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.service.CourseService;
+import com.thishan.cms_backend.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Validators of conditional GETs: lists and single resources send only an ETag, which
+ * must change when a row is deleted or updated.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private CourseService courseService;
+
+	private String etag(String path) throws Exception {
+		return mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	@Test
+	void listsSendOnlyAnEtagThatSeesDeletions() throws Exception {
+		String studentId = "CR-" + System.nanoTime();
+		Student student = studentService.createStudent(new Student(studentId, "Conditional", "Request",
+				studentId + "@test.edu", null, "Testing", 1));
+		String before = etag("/students");
+
+		studentService.deleteStudent(student.getId());
+
+		String after = etag("/students");
+		assertNotEquals(before, after);
+		mockMvc.perform(get("/students").header(HttpHeaders.IF_NONE_MATCH, after))
+				.andExpect(status().isNotModified());
+		etag("/courses");
+		etag("/enrollments/summary");
+	}
+
+	@Test
+	void singleResourcesSendOnlyAnEtagThatSeesUpdates() throws Exception {
+		Course course = new Course("CR" + System.nanoTime() % 1_000_000, "Conditional requests", null, 3, "Fall",
+				"Testing");
+		course = courseService.createCourse(course);
+		String before = etag("/courses/" + course.getId());
+		String byCode = etag("/courses/code/" + course.getCode());
+
+		course.setTitle("Conditional requests, updated");
+		courseService.updateCourse(course.getId(), course);
+
+		String after = etag("/courses/" + course.getId());
+		assertNotEquals(before, after);
+		mockMvc.perform(get("/courses/" + course.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+		String byCodeAfter = etag("/courses/code/" + course.getCode());
+		assertNotEquals(byCode, byCodeAfter);
+		mockMvc.perform(get("/courses/code/" + course.getCode()).header(HttpHeaders.IF_NONE_MATCH, byCodeAfter))
+				.andExpect(status().isNotModified());
+	}
+}
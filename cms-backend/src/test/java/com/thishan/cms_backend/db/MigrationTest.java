@@ -0,0 +1,61 @@
+package com.thishan.cms_backend.db;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Migrates a database that was created before the unique (student, course) key, as
+ * V1 leaves it, on a fresh in-memory H2 database per test.
+ */
+class MigrationTest {
+
+	private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+	private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+	private Flyway flyway(String target) {
+		return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").target(target).load();
+	}
+
+	private void insertV1Rows() {
+		jdbc.update("INSERT INTO courses (id, code, title, credits) VALUES (1, 'CS101', 'Programming', 3)");
+		jdbc.update("INSERT INTO students (id, student_id, first_name, last_name, email) " +
+				"VALUES (7, 'S007', 'Ada', 'Lovelace', 'ada@test.edu')");
+	}
+
+	private void insertEnrollment(long id, String status, String grade) {
+		jdbc.update("INSERT INTO enrollments (id, student_id, course_id, enrollment_date, status, grade) " +
+				"VALUES (?, 7, 1, CURRENT_TIMESTAMP, ?, ?)", id, status, grade);
+	}
+
+	@Test
+	void duplicateEnrollmentsStopTheMigrationWithoutLosingRows() {
+		flyway("1").migrate();
+		insertV1Rows();
+		insertEnrollment(1, "FAILED", "F");
+		insertEnrollment(2, "COMPLETED", "B+");
+
+		FlywayException e = assertThrows(FlywayException.class, () -> flyway("latest").migrate());
+		assertTrue(e.getMessage().contains("Duplicate enrollments, student_id/course_id: 7/1"), e.getMessage());
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM enrollments", Integer.class));
+	}
+
+	@Test
+	void uniqueEnrollmentsMigrateAndBackfillSeats() {
+		flyway("1").migrate();
+		insertV1Rows();
+		insertEnrollment(1, "ENROLLED", null);
+
+		flyway("latest").migrate();
+		assertEquals(1, jdbc.queryForObject("SELECT enrolled_count FROM courses WHERE id = 1", Integer.class));
+	}
+}
@@ -0,0 +1,66 @@
+package com.thishan.cms_backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NgramIndexTest {
+
+	private static List<Long> ids(List<NgramIndex.Hit> hits) {
+		return hits.stream().map(NgramIndex.Hit::id).toList();
+	}
+
+	@Test
+	void matchesSubstringsAcrossFieldsAndRanksExactMatchesFirst() {
+		NgramIndex index = new NgramIndex();
+		index.put(1L, new NgramIndex.Field("CS101", 3), new NgramIndex.Field("Intro to Computing", 2));
+		index.put(2L, new NgramIndex.Field("CS201", 3), new NgramIndex.Field("Data Structures", 2));
+		index.put(3L, new NgramIndex.Field("MATH101", 3), new NgramIndex.Field("Calculus", 2));
+
+		assertEquals(List.of(1L, 3L), ids(index.search("101")));
+		assertEquals(List.of(2L), ids(index.search("cs201")));
+		assertEquals(List.of(1L), ids(index.search("comp cs")));
+		assertTrue(index.search("biology").isEmpty());
+	}
+
+	@Test
+	void reindexAndRemoveUpdatePostings() {
+		NgramIndex index = new NgramIndex();
+		index.put(1L, new NgramIndex.Field("Jane Smith", 2));
+		index.put(1L, new NgramIndex.Field("Jane Doe", 2));
+
+		assertTrue(index.search("smith").isEmpty());
+		assertEquals(List.of(1L), ids(index.search("doe")));
+
+		index.remove(1L);
+		assertTrue(index.search("jane").isEmpty());
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void rebuildSkipsDocumentsChangedWhileItRuns() {
+		NgramIndex index = new NgramIndex();
+		index.put(1L, new NgramIndex.Field("Jane Smith", 2));
+
+		index.startRebuild();
+		assertEquals(0, index.size());
+		// Committed after the rebuild read the rows: a rename, a delete and a new document
+		index.put(1L, new NgramIndex.Field("Jane Doe", 2));
+		index.remove(2L);
+		index.put(4L, new NgramIndex.Field("Max Roe", 2));
+		index.putIfUnchanged(1L, new NgramIndex.Field("Jane Smith", 2));
+		index.putIfUnchanged(2L, new NgramIndex.Field("Ann Lee", 2));
+		index.putIfUnchanged(3L, new NgramIndex.Field("Sam Poe", 2));
+		index.finishRebuild();
+
+		assertTrue(index.search("smith").isEmpty());
+		assertEquals(List.of(1L), ids(index.search("doe")));
+		assertTrue(index.search("lee").isEmpty());
+		assertEquals(List.of(3L), ids(index.search("poe")));
+		assertEquals(List.of(4L), ids(index.search("roe")));
+		assertEquals(3, index.size());
+	}
+}
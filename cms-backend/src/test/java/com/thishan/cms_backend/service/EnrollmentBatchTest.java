@@ -0,0 +1,256 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.dto.BulkGradeRow;
+import com.thishan.cms_backend.dto.BulkResult;
+import com.thishan.cms_backend.dto.BulkRowResult;
+import com.thishan.cms_backend.dto.StatusTransitionResult;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The batch grade and bulk status endpoints: which rows fail and why, and that the
+ * counters, transcript aggregates and outbox events follow exactly the rows that changed.
+ * The change log publisher is off and the database is this class's own, so events stay in
+ * the outbox where they can be counted; the publishers of other cached test contexts would
+ * otherwise drain it.
+ */
+@SpringBootTest(properties = {
+		"cms.change-log.publisher-enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:cms-batch;DB_CLOSE_DELAY=-1"
+})
+@Import(EnrollmentFixtures.class)
+class EnrollmentBatchTest {
+
+	@Autowired
+	private EnrollmentFixtures fixtures;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private static void assertFailed(BulkRowResult result, String error) {
+		assertFalse(result.isSuccess(), "row " + result.getIndex() + " should fail");
+		assertTrue(result.getError().contains(error), result.getError());
+	}
+
+	private Enrollment enrollment(Long id) {
+		return enrollmentService.getEnrollmentById(id).orElseThrow();
+	}
+
+	private int enrolledCount(Course course) {
+		return jdbc.queryForObject("SELECT enrolled_count FROM courses WHERE id = ?", Integer.class, course.getId());
+	}
+
+	// Outbox UPDATED events of all enrollments in a course
+	private int updatedEvents(Course course) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE aggregate_type = 'ENROLLMENT' AND " +
+				"event_type = 'UPDATED' AND aggregate_id IN (SELECT id FROM enrollments WHERE course_id = ?)",
+				Integer.class, course.getId());
+	}
+
+	@Test
+	void gradeBatchAppliesValidRowsAndReportsTheRest() {
+		Course course = fixtures.createCourse(4, 2);
+		List<String> students = fixtures.createStudents(3);
+		Long graded = enrollmentService.createEnrollment(students.get(0), course.getCode(), "Fall", "2026").getId();
+		Long dropped = enrollmentService.createEnrollment(students.get(1), course.getCode(), "Fall", "2026").getId();
+		enrollmentService.updateEnrollmentStatus(dropped, Enrollment.EnrollmentStatus.DROPPED);
+		Long passed = enrollmentService.createEnrollment(students.get(2), course.getCode(), "Fall", "2026").getId();
+		int droppedEvents = fixtures.outboxEvents("ENROLLMENT", dropped).size();
+
+		BulkResult result = enrollmentService.updateEnrollmentGrades(List.of(
+				new BulkGradeRow(graded, "A"),
+				new BulkGradeRow(Long.MAX_VALUE, "B"),
+				new BulkGradeRow(null, "B"),
+				new BulkGradeRow(passed, "TOOLONG"),
+				new BulkGradeRow(graded, "C"),
+				// Grading a dropped enrollment reinstates it, and the course is full again
+				new BulkGradeRow(dropped, "B"),
+				new BulkGradeRow(passed, "P")));
+
+		assertEquals(2, result.getSucceeded());
+		assertEquals(5, result.getFailed());
+		List<BulkRowResult> rows = result.getResults();
+		assertTrue(rows.get(0).isSuccess());
+		assertEquals(graded, rows.get(0).getId());
+		assertFailed(rows.get(1), "Enrollment not found with id: " + Long.MAX_VALUE);
+		assertFailed(rows.get(2), "Enrollment ID is required");
+		assertFailed(rows.get(3), "at most " + Enrollment.GRADE_LENGTH + " characters");
+		assertFailed(rows.get(4), "appears more than once");
+		assertFailed(rows.get(5), "is full");
+		assertTrue(rows.get(6).isSuccess());
+		for (int i = 0; i < rows.size(); i++) {
+			assertEquals(i, rows.get(i).getIndex());
+		}
+
+		assertEquals("A", enrollment(graded).getGrade());
+		assertEquals(Enrollment.EnrollmentStatus.COMPLETED, enrollment(graded).getStatus());
+		assertEquals("P", enrollment(passed).getGrade());
+		assertEquals(Enrollment.EnrollmentStatus.DROPPED, enrollment(dropped).getStatus());
+		assertNull(enrollment(dropped).getGrade());
+
+		fixtures.assertCountersMatch(course);
+		students.forEach(fixtures::assertTranscriptMatches);
+		assertEquals(List.of("CREATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", graded));
+		assertEquals(List.of("CREATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", passed));
+		assertEquals(droppedEvents, fixtures.outboxEvents("ENROLLMENT", dropped).size());
+	}
+
+	@Test
+	void regradingMovesTranscriptTotalsAndCountersOnce() {
+		Course course = fixtures.createCourse(3, null);
+		List<String> students = fixtures.createStudents(2);
+		List<Long> ids = new ArrayList<>();
+		for (String student : students) {
+			ids.add(enrollmentService.createEnrollment(student, course.getCode(), "Spring", "2026").getId());
+		}
+
+		enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(ids.get(0), "B+"),
+				new BulkGradeRow(ids.get(1), "F")));
+		// A blank grade clears the grade but leaves the enrollment completed
+		BulkResult regraded = enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(ids.get(0), "A-"),
+				new BulkGradeRow(ids.get(1), "")));
+
+		assertEquals(2, regraded.getSucceeded());
+		fixtures.assertCountersMatch(course);
+		students.forEach(fixtures::assertTranscriptMatches);
+	}
+
+	@Test
+	void gradeBatchesHaveAnUpperBound() {
+		List<BulkGradeRow> rows = Collections.nCopies(EnrollmentService.MAX_BULK_SIZE + 1, new BulkGradeRow(1L, "A"));
+		assertThrows(IllegalArgumentException.class, () -> enrollmentService.updateEnrollmentGrades(rows));
+	}
+
+	@Test
+	void transitionMovesOnlyTheRequestedStatuses() {
+		String semester = "Term " + EnrollmentFixtures.unique();
+		Course course = fixtures.createCourse(3, 10);
+		Course other = fixtures.createCourse(4, 10);
+		List<String> students = fixtures.createStudents(4);
+		List<Long> ids = new ArrayList<>();
+		for (String student : students) {
+			ids.add(enrollmentService.createEnrollment(student, course.getCode(), semester, "2026").getId());
+		}
+		Long enrolled = ids.get(0);
+		Long inProgress = ids.get(1);
+		Long graded = ids.get(2);
+		Long dropped = ids.get(3);
+		enrollmentService.updateEnrollmentStatus(inProgress, Enrollment.EnrollmentStatus.IN_PROGRESS);
+		enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(graded, "B")));
+		enrollmentService.updateEnrollmentStatus(dropped, Enrollment.EnrollmentStatus.DROPPED);
+		Long otherGraded = enrollmentService.createEnrollment(students.get(2), other.getCode(), semester, "2026").getId();
+		enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(otherGraded, "A")));
+
+		// Default source statuses are ENROLLED and IN_PROGRESS
+		StatusTransitionResult completed = enrollmentService.transitionEnrollmentStatus(null,
+				Enrollment.EnrollmentStatus.COMPLETED, course.getCode(), null, null);
+
+		assertEquals(2, completed.getUpdated());
+		assertEquals(1, completed.getChunks());
+		assertEquals(Enrollment.EnrollmentStatus.COMPLETED, enrollment(enrolled).getStatus());
+		assertEquals(Enrollment.EnrollmentStatus.COMPLETED, enrollment(inProgress).getStatus());
+		assertEquals(Enrollment.EnrollmentStatus.DROPPED, enrollment(dropped).getStatus());
+		assertEquals(List.of("CREATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", enrolled));
+		assertEquals(List.of("CREATED", "UPDATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", inProgress));
+		assertEquals(List.of("CREATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", graded));
+		fixtures.assertCountersMatch(course);
+		assertEquals(3, enrolledCount(course));
+
+		// Dropping a whole term gives the seats back and takes graded work off the transcripts
+		StatusTransitionResult droppedTerm = enrollmentService.transitionEnrollmentStatus(
+				List.of(Enrollment.EnrollmentStatus.COMPLETED), Enrollment.EnrollmentStatus.DROPPED, null, semester, "2026");
+
+		assertEquals(4, droppedTerm.getUpdated());
+		assertEquals(0, enrolledCount(course));
+		assertEquals(0, enrolledCount(other));
+		fixtures.assertCountersMatch(course);
+		fixtures.assertCountersMatch(other);
+		students.forEach(fixtures::assertTranscriptMatches);
+		assertEquals(List.of("CREATED", "UPDATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", otherGraded));
+		assertEquals(0, courseService.getCourseSeats(course.getCode()).orElseThrow().enrolledCount());
+	}
+
+	@Test
+	void failedTransitionChunkRollsBackAloneAndLeavesSideEffectsConsistent() {
+		int size = 1200;
+		Course course = fixtures.createCourse(3, size);
+		List<String> students = fixtures.insertStudents(size);
+		List<BulkEnrollmentRow> rows = new ArrayList<>();
+		for (String student : students) {
+			rows.add(new BulkEnrollmentRow(student, course.getCode(), "Fall", "2026"));
+		}
+		assertEquals(size, enrollmentService.createEnrollments(rows).getSucceeded());
+		List<Long> ids = jdbc.queryForList("SELECT id FROM enrollments WHERE course_id = ? ORDER BY id", Long.class,
+				course.getId());
+		// One graded enrollment in each chunk
+		Long gradedInFirst = ids.get(10);
+		Long gradedInSecond = ids.get(1100);
+		enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(gradedInFirst, "A"),
+				new BulkGradeRow(gradedInSecond, "B")));
+		int updatedEventsBefore = updatedEvents(course);
+
+		// The second chunk hits a row that refuses to be dropped
+		Long refusing = ids.get(1150);
+		String constraint = "no_drop_" + refusing;
+		jdbc.execute("ALTER TABLE enrollments ADD CONSTRAINT " + constraint + " CHECK (id <> " + refusing +
+				" OR status <> 'DROPPED')");
+		try {
+			assertThrows(DataAccessException.class, () -> enrollmentService.transitionEnrollmentStatus(
+					List.of(Enrollment.EnrollmentStatus.ENROLLED, Enrollment.EnrollmentStatus.COMPLETED),
+					Enrollment.EnrollmentStatus.DROPPED, course.getCode(), null, null));
+		} finally {
+			jdbc.execute("ALTER TABLE enrollments DROP CONSTRAINT " + constraint);
+		}
+
+		// The first chunk committed, the second left no trace
+		assertEquals(1000, jdbc.queryForObject("SELECT COUNT(*) FROM enrollments WHERE course_id = ? AND " +
+				"status = 'DROPPED'", Integer.class, course.getId()));
+		assertEquals(Enrollment.EnrollmentStatus.DROPPED, enrollment(ids.get(999)).getStatus());
+		assertEquals(Enrollment.EnrollmentStatus.ENROLLED, enrollment(ids.get(1000)).getStatus());
+		assertEquals(Enrollment.EnrollmentStatus.COMPLETED, enrollment(gradedInSecond).getStatus());
+		assertEquals(size - 1000, enrolledCount(course));
+		fixtures.assertCountersMatch(course);
+		fixtures.assertTranscriptMatches(students.get(10));
+		fixtures.assertTranscriptMatches(students.get(1100));
+		assertEquals(updatedEventsBefore + 1000, updatedEvents(course));
+		assertEquals(List.of("CREATED", "UPDATED"), fixtures.outboxEvents("ENROLLMENT", gradedInSecond));
+	}
+
+	@Test
+	void transitionRejectsInvalidRequests() {
+		Course course = fixtures.createCourse(3, null);
+		assertThrows(IllegalArgumentException.class, () -> enrollmentService.transitionEnrollmentStatus(null, null,
+				course.getCode(), null, null));
+		assertThrows(IllegalArgumentException.class, () -> enrollmentService.transitionEnrollmentStatus(null,
+				Enrollment.EnrollmentStatus.COMPLETED, null, "Fall", null));
+		assertThrows(IllegalArgumentException.class, () -> enrollmentService.transitionEnrollmentStatus(
+				List.of(Enrollment.EnrollmentStatus.DROPPED), Enrollment.EnrollmentStatus.ENROLLED, course.getCode(),
+				null, null));
+		RuntimeException unknown = assertThrows(RuntimeException.class, () -> enrollmentService
+				.transitionEnrollmentStatus(null, Enrollment.EnrollmentStatus.COMPLETED, "NO-SUCH-COURSE", null, null));
+		assertTrue(unknown.getMessage().contains("Course not found"));
+	}
+}
@@ -0,0 +1,150 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.dto.BulkGradeRow;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The materialized enrollment counters against a recount from the enrollments table,
+ * after each kind of enrollment write and after the scheduled reconciliation, and with the
+ * recount running alongside status changes that do not move a seat.
+ */
+@SpringBootTest
+@Import(EnrollmentFixtures.class)
+class EnrollmentCounterServiceTest {
+
+	@Autowired
+	private EnrollmentFixtures fixtures;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private EnrollmentCounterService counterService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void everyEnrollmentWriteMovesTheCounters() {
+		Course course = fixtures.createCourse(3, null);
+		List<String> students = fixtures.createStudents(6);
+
+		// The first enrollment creates the counters, later ones add to them
+		List<Long> ids = new ArrayList<>();
+		for (String student : students.subList(0, 3)) {
+			ids.add(enrollmentService.createEnrollment(student, course.getCode(), "Fall", "2026").getId());
+			fixtures.assertCountersMatch(course);
+		}
+		List<BulkEnrollmentRow> rows = new ArrayList<>();
+		for (String student : students.subList(3, 6)) {
+			rows.add(new BulkEnrollmentRow(student, course.getCode(), "Fall", "2026"));
+		}
+		enrollmentService.createEnrollments(rows);
+		fixtures.assertCountersMatch(course);
+		assertEquals(6, counterService.getCount(course.getCode()));
+
+		enrollmentService.updateEnrollmentStatus(ids.get(0), Enrollment.EnrollmentStatus.IN_PROGRESS);
+		fixtures.assertCountersMatch(course);
+		enrollmentService.updateEnrollmentStatus(ids.get(1), Enrollment.EnrollmentStatus.DROPPED);
+		fixtures.assertCountersMatch(course);
+		enrollmentService.updateEnrollmentStatus(ids.get(1), Enrollment.EnrollmentStatus.ENROLLED);
+		fixtures.assertCountersMatch(course);
+		enrollmentService.updateEnrollmentGrade(ids.get(2), "A");
+		fixtures.assertCountersMatch(course);
+
+		// Deletes count down the status the enrollment was in, dropped or not
+		enrollmentService.deleteEnrollment(ids.get(0));
+		fixtures.assertCountersMatch(course);
+		enrollmentService.updateEnrollmentStatus(ids.get(1), Enrollment.EnrollmentStatus.DROPPED);
+		enrollmentService.deleteEnrollment(ids.get(1));
+		fixtures.assertCountersMatch(course);
+		assertEquals(4, counterService.getCount(course.getCode()));
+
+		// Bulk writes: a batch of grades, then a transition recounting the course
+		List<Enrollment> remaining = enrollmentService.getEnrollmentsByCourseCode(course.getCode());
+		enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(remaining.get(0).getId(), "B"),
+				new BulkGradeRow(remaining.get(1).getId(), "C")));
+		fixtures.assertCountersMatch(course);
+		enrollmentService.transitionEnrollmentStatus(null, Enrollment.EnrollmentStatus.COMPLETED, course.getCode(),
+				null, null);
+		fixtures.assertCountersMatch(course);
+		enrollmentService.transitionEnrollmentStatus(List.of(Enrollment.EnrollmentStatus.COMPLETED),
+				Enrollment.EnrollmentStatus.DROPPED, course.getCode(), null, null);
+		fixtures.assertCountersMatch(course);
+		assertEquals(4, counterService.getCount(course.getCode()));
+	}
+
+	@Test
+	void reconcileRepairsDriftAndCreatesMissingCounters() {
+		Course drifted = fixtures.createCourse(3, null);
+		Course uncounted = fixtures.createCourse(3, null);
+		for (String student : fixtures.createStudents(3)) {
+			enrollmentService.createEnrollment(student, drifted.getCode(), "Fall", "2026");
+			enrollmentService.createEnrollment(student, uncounted.getCode(), "Fall", "2026");
+		}
+		jdbc.update("UPDATE course_enrollment_counts SET enrollment_count = enrollment_count + 5 WHERE course_id = ? " +
+				"AND status = 'ENROLLED'", drifted.getId());
+		jdbc.update("DELETE FROM course_enrollment_counts WHERE course_id = ?", uncounted.getId());
+		assertEquals(8, counterService.getCount(drifted.getCode()));
+		assertEquals(0, counterService.getCount(uncounted.getCode()));
+
+		counterService.reconcile();
+
+		fixtures.assertCountersMatch(drifted);
+		fixtures.assertCountersMatch(uncounted);
+		assertEquals(3, counterService.getCount(uncounted.getCode()));
+	}
+	
+	@Test
+	void recountRunsAlongsideStatusChangesAndGrades() throws Exception {
+		Course course = fixtures.createCourse(3, null);
+		List<Long> ids = new ArrayList<>();
+		for (String student : fixtures.createStudents(4)) {
+			ids.add(enrollmentService.createEnrollment(student, course.getCode(), "Fall", "2026").getId());
+		}
+		
+		// Each writer owns one enrollment and moves it without crossing DROPPED, so no seat UPDATE locks the course
+		ExecutorService executor = Executors.newFixedThreadPool(ids.size() + 1);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (Long id : ids) {
+				tasks.add(executor.submit(() -> {
+					for (int i = 0; i < 20; i++) {
+						enrollmentService.updateEnrollmentStatus(id, i % 2 == 0
+								? Enrollment.EnrollmentStatus.IN_PROGRESS : Enrollment.EnrollmentStatus.ENROLLED);
+					}
+					enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(id, "B")));
+				}));
+			}
+			tasks.add(executor.submit(() -> {
+				for (int i = 0; i < 40; i++) {
+					counterService.recount(List.of(course.getId()));
+					counterService.reconcile();
+				}
+			}));
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		fixtures.assertCountersMatch(course);
+		assertEquals(ids.size(), counterService.getCount(course.getCode()));
+	}
+}
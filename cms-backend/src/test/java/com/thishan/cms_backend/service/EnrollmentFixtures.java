@@ -0,0 +1,140 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.entity.Student;
+import com.thishan.cms_backend.entity.StudentTermAggregate;
+import com.thishan.cms_backend.repository.EnrollmentRepository;
+import com.thishan.cms_backend.repository.StudentRepository;
+import com.thishan.cms_backend.repository.StudentTermAggregateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test data for enrollment tests, and checks of the materialized counters and transcript
+ * aggregates against a recount from the enrollments table. Import it into a test with
+ * {@code @Import(EnrollmentFixtures.class)}.
+ */
+class EnrollmentFixtures {
+
+	private static final AtomicInteger sequence = new AtomicInteger();
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private EnrollmentCounterService counterService;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private StudentTermAggregateRepository aggregateRepository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	// A unique suffix, short enough for a course code
+	static String unique() {
+		return Integer.toString(sequence.incrementAndGet(), 36) + Long.toString(System.nanoTime() % 46_656, 36);
+	}
+
+	Course createCourse(int credits, Integer capacity) {
+		Course course = new Course("FX" + unique(), "Fixture course", null, credits, "Fall", "Testing");
+		course.setCapacity(capacity);
+		return courseService.createCourse(course);
+	}
+
+	List<String> createStudents(int count) {
+		List<String> studentIds = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String studentId = "FX-" + unique();
+			studentService.createStudent(new Student(studentId, "Fixture", "Student", studentId + "@test.edu",
+					null, "Testing", 1));
+			studentIds.add(studentId);
+		}
+		return studentIds;
+	}
+
+	// Many students at once, inserted directly (they are not in the search index)
+	List<String> insertStudents(int count) {
+		String prefix = "FXB-" + unique() + "-";
+		List<Object[]> rows = new ArrayList<>();
+		List<String> studentIds = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String studentId = prefix + i;
+			rows.add(new Object[] {studentId, studentId + "@test.edu"});
+			studentIds.add(studentId);
+		}
+		jdbc.batchUpdate("INSERT INTO students (student_id, first_name, last_name, email, department, year_of_study, " +
+				"created_at, updated_at) VALUES (?, 'Fixture', 'Student', ?, 'Testing', 1, CURRENT_TIMESTAMP, " +
+				"CURRENT_TIMESTAMP)", rows);
+		return studentIds;
+	}
+
+	// Enrollment counts per status from the counters, and recounted from the enrollments table, must agree
+	void assertCountersMatch(Course course) {
+		Map<String, Long> recounted = new TreeMap<>();
+		for (Enrollment.EnrollmentStatus status : Enrollment.EnrollmentStatus.values()) {
+			recounted.put(status.name(), 0L);
+		}
+		jdbc.query("SELECT status, COUNT(*) FROM enrollments WHERE course_id = ? GROUP BY status",
+				rs -> { recounted.put(rs.getString(1), rs.getLong(2)); }, course.getId());
+		Map<String, Long> counters = new TreeMap<>();
+		jdbc.query("SELECT status, enrollment_count FROM course_enrollment_counts WHERE course_id = ?",
+				rs -> { counters.put(rs.getString(1), rs.getLong(2)); }, course.getId());
+		assertEquals(recounted, counters, "enrollment counters of " + course.getCode());
+		assertEquals(enrollmentRepository.countByCourseCode(course.getCode()), counterService.getCount(course.getCode()));
+	}
+
+	// The transcript aggregates of a student must match a recomputation from all of the student's enrollments
+	void assertTranscriptMatches(String studentId) {
+		Student student = studentRepository.findByStudentId(studentId).orElseThrow();
+		Map<String, TranscriptService.Contribution> recomputed = new TreeMap<>();
+		for (Enrollment enrollment : enrollmentRepository.findByStudentId(studentId)) {
+			TranscriptService.Contribution contribution = TranscriptService.contributionOf(enrollment);
+			if (contribution.attemptedCredits() != 0 || contribution.earnedCredits() != 0) {
+				TranscriptService.TermKey term = TranscriptService.TermKey.of(student.getId(),
+						enrollment.getSemester(), enrollment.getAcademicYear());
+				recomputed.merge(term.semester() + "/" + term.academicYear(), contribution,
+						(a, b) -> new TranscriptService.Contribution(a.attemptedCredits() + b.attemptedCredits(),
+								a.earnedCredits() + b.earnedCredits(), a.qualityPoints().add(b.qualityPoints())));
+			}
+		}
+		Map<String, String> expected = new TreeMap<>();
+		recomputed.forEach((term, total) -> expected.put(term,
+				totals(total.attemptedCredits(), total.earnedCredits(), total.qualityPoints())));
+		Map<String, String> actual = new TreeMap<>();
+		for (StudentTermAggregate row : aggregateRepository.findTermsByStudentId(student.getId())) {
+			actual.put(row.getSemester() + "/" + row.getAcademicYear(),
+					totals(row.getAttemptedCredits(), row.getEarnedCredits(), row.getQualityPoints()));
+		}
+		assertEquals(expected, actual, "transcript aggregates of " + studentId);
+	}
+
+	private static String totals(int attempted, int earned, BigDecimal qualityPoints) {
+		return attempted + " attempted, " + earned + " earned, "
+				+ qualityPoints.stripTrailingZeros().toPlainString() + " points";
+	}
+
+	// Event types of the outbox events not yet published for an aggregate, oldest first
+	List<String> outboxEvents(String aggregateType, Long aggregateId) {
+		return jdbc.queryForList("SELECT event_type FROM outbox_events WHERE aggregate_type = ? AND aggregate_id = ? " +
+				"ORDER BY id", String.class, aggregateType, aggregateId);
+	}
+}
@@ -0,0 +1,194 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.entity.Course;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The enrollment stream: replay of missed events from Last-Event-ID, a reset for clients too
+ * far behind, and disconnecting subscribers that fall behind or whose sends stall. Holding an
+ * emitter's lock stands in for a client that stopped reading, since every send takes it. The
+ * database is this class's own, so the outbox is published into this context's change log.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:cms-stream;DB_CLOSE_DELAY=-1",
+		"cms.enrollment-stream.buffer-size=" + EnrollmentStreamServiceTest.BUFFER_SIZE,
+		"cms.enrollment-stream.send-timeout=PT0.5S"
+})
+@AutoConfigureMockMvc
+@Import(EnrollmentFixtures.class)
+class EnrollmentStreamServiceTest {
+
+	static final int BUFFER_SIZE = 8;
+
+	@Autowired
+	private EnrollmentFixtures fixtures;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private EnrollmentStreamService streamService;
+
+	@Autowired
+	private ChangeEventService changeEventService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Timed out waiting for the stream");
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	// Open a stream and wait for its ready event; returns everything sent up to then
+	private String openStream(String courseCode, String lastEventId) throws Exception {
+		MockHttpServletRequestBuilder streamRequest = get("/enrollments/stream").header("Last-Event-ID", lastEventId);
+		if (courseCode != null) {
+			streamRequest.param("courseCode", courseCode);
+		}
+		MvcResult result = mockMvc.perform(streamRequest).andExpect(request().asyncStarted()).andReturn();
+		await(() -> content(result).contains("event:" + EnrollmentStreamService.READY_EVENT));
+		return content(result);
+	}
+
+	private static String content(MvcResult result) {
+		try {
+			return result.getResponse().getContentAsString();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// Publish the outbox into the change log and move the stream's cursor past it
+	private void publish() {
+		changeEventService.publishPendingEvents();
+		streamService.dispatchChanges();
+	}
+
+	private double dropped() {
+		return meterRegistry.get("cms.enrollment.stream.dropped").counter().count();
+	}
+
+	@Test
+	void resumeFromLastEventIdSendsTheMissedEventsFirst() throws Exception {
+		publish();
+		long lastEventId = changeEventService.getNextOffset();
+		Course course = fixtures.createCourse(3, null);
+		Course other = fixtures.createCourse(3, null);
+		List<String> students = fixtures.createStudents(2);
+		List<Long> ids = new ArrayList<>();
+		for (String student : students) {
+			ids.add(enrollmentService.createEnrollment(student, course.getCode(), "Fall", "2026").getId());
+		}
+		enrollmentService.createEnrollment(students.get(0), other.getCode(), "Fall", "2026");
+		publish();
+
+		String content = openStream(course.getCode(), Long.toString(lastEventId));
+
+		int ready = content.indexOf("event:" + EnrollmentStreamService.READY_EVENT);
+		for (Long id : ids) {
+			int created = content.indexOf("\"id\":" + id + ",");
+			assertTrue(created >= 0 && created < ready, content);
+		}
+		assertFalse(content.contains(other.getCode()), content);
+		assertFalse(content.contains("event:" + EnrollmentStreamService.RESET_EVENT), content);
+	}
+
+	@Test
+	void clientsTooFarBehindAreToldToReload() throws Exception {
+		publish();
+		long lastEventId = changeEventService.getNextOffset();
+		List<Object[]> rows = new ArrayList<>();
+		for (long i = 0; i <= EnrollmentStreamService.MAX_REPLAY_RECORDS; i++) {
+			rows.add(new Object[] {i});
+		}
+		jdbc.batchUpdate("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) " +
+				"VALUES ('STUDENT', ?, 'UPDATED', '{}', CURRENT_TIMESTAMP)", rows);
+		publish();
+
+		for (String resumeFrom : List.of(Long.toString(lastEventId), "not-an-offset")) {
+			String content = openStream(null, resumeFrom);
+			int reset = content.indexOf("event:" + EnrollmentStreamService.RESET_EVENT);
+			assertTrue(reset >= 0 && reset < content.indexOf("event:" + EnrollmentStreamService.READY_EVENT), content);
+		}
+	}
+
+	@Test
+	void subscribersWhoseQueueOverflowsAreDisconnected() throws Exception {
+		SseEmitter emitter = streamService.subscribe(null, null, null);
+		int subscribers = streamService.getSubscriberCount();
+		double dropped = dropped();
+
+		synchronized (emitter) {
+			// The delivery thread waits on the emitter, so the heartbeats pile up in the queue
+			for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+				streamService.sendHeartbeats();
+			}
+			assertEquals(dropped + 1, dropped());
+		}
+
+		await(() -> streamService.getSubscriberCount() == subscribers - 1);
+		assertThrows(IllegalStateException.class, () -> emitter.send("late"));
+	}
+
+	@Test
+	void subscribersWhoseSendStallsAreDisconnected() throws Exception {
+		SseEmitter emitter = streamService.subscribe(null, null, null);
+		int subscribers = streamService.getSubscriberCount();
+		double dropped = dropped();
+
+		synchronized (emitter) {
+			streamService.sendHeartbeats();
+			Thread.sleep(1000);
+			// The heartbeat job finds the send past the timeout and does not wait for the emitter itself
+			streamService.sendHeartbeats();
+			assertEquals(subscribers - 1, streamService.getSubscriberCount());
+			assertEquals(dropped + 1, dropped());
+		}
+
+		// The delivery thread completes the response once the stalled write returns
+		await(() -> {
+			try {
+				emitter.send("late");
+				return false;
+			} catch (IllegalStateException e) {
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		});
+	}
+}
@@ -0,0 +1,183 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.CourseSeats;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import com.thishan.cms_backend.entity.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registration rush against the in-memory H2 database: many threads take seats in the
+ * same course at once, and only the conditional seat UPDATE stands between them and
+ * overbooking.
+ */
+@SpringBootTest
+class SeatReservationTest {
+
+	private static final int CAPACITY = 5;
+	private static final int THREADS = 20;
+
+	private static final AtomicInteger sequence = new AtomicInteger();
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private Course createCourse(Integer capacity) {
+		Course course = new Course("SR" + sequence.incrementAndGet() + "-" + System.nanoTime() % 10_000,
+				"Seat reservation", null, 3, "Fall", "Testing");
+		course.setCapacity(capacity);
+		return courseService.createCourse(course);
+	}
+
+	private List<String> createStudents(int count) {
+		List<String> studentIds = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String studentId = "SR-" + sequence.incrementAndGet() + "-" + System.nanoTime();
+			studentService.createStudent(new Student(studentId, "Seat", "Taker", studentId + "@test.edu",
+					null, "Testing", 1));
+			studentIds.add(studentId);
+		}
+		return studentIds;
+	}
+
+	// Start all tasks at the same moment and count those that returned; the others must fail with an expected reason
+	private static int runConcurrently(List<Callable<?>> tasks, String... expectedFailures) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Callable<?> task : tasks) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			start.countDown();
+			int succeeded = 0;
+			for (Future<?> future : futures) {
+				try {
+					future.get(60, TimeUnit.SECONDS);
+					succeeded++;
+				} catch (ExecutionException e) {
+					String message = String.valueOf(e.getCause().getMessage());
+					assertTrue(List.of(expectedFailures).stream().anyMatch(message::contains), message);
+				} catch (TimeoutException e) {
+					throw new AssertionError("Enrollment did not finish", e);
+				}
+			}
+			return succeeded;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private int enrolledCount(Course course) {
+		return jdbc.queryForObject("SELECT enrolled_count FROM courses WHERE id = ?", Integer.class, course.getId());
+	}
+
+	private int activeEnrollments(Course course) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM enrollments WHERE course_id = ? AND status <> 'DROPPED'",
+				Integer.class, course.getId());
+	}
+
+	private int duplicatePairs(Course course) {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT student_id FROM enrollments WHERE course_id = ? " +
+				"GROUP BY student_id HAVING COUNT(*) > 1) d", Integer.class, course.getId());
+	}
+
+	@Test
+	void concurrentEnrollmentsTakeExactlyTheCapacity() throws InterruptedException {
+		Course course = createCourse(CAPACITY);
+		// Enrollments change no cached catalog entry
+		Course cached = courseService.getCourseByCode(course.getCode()).orElseThrow();
+		List<Callable<?>> tasks = new ArrayList<>();
+		for (String studentId : createStudents(THREADS)) {
+			tasks.add(() -> enrollmentService.createEnrollment(studentId, course.getCode(), "Fall", "2026"));
+		}
+
+		assertEquals(CAPACITY, runConcurrently(tasks, "is full"));
+		assertEquals(CAPACITY, enrolledCount(course));
+		assertEquals(CAPACITY, activeEnrollments(course));
+		assertEquals(0, duplicatePairs(course));
+		assertSame(cached, courseService.getCourseByCode(course.getCode()).orElseThrow());
+		CourseSeats seats = courseService.getCourseSeats(course.getCode()).orElseThrow();
+		assertEquals(CAPACITY, seats.enrolledCount());
+		assertEquals(0, seats.seatsLeft());
+	}
+
+	@Test
+	void concurrentDuplicateEnrollmentsSucceedOnce() throws InterruptedException {
+		Course course = createCourse(null);
+		String studentId = createStudents(1).get(0);
+		List<Callable<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			tasks.add(() -> enrollmentService.createEnrollment(studentId, course.getCode(), "Fall", "2026"));
+		}
+
+		assertEquals(1, runConcurrently(tasks, "already enrolled"));
+		assertEquals(1, enrolledCount(course));
+		assertEquals(0, duplicatePairs(course));
+	}
+
+	@Test
+	void droppedSeatsGoToExactlyOneContender() throws InterruptedException {
+		Course course = createCourse(CAPACITY);
+		List<Long> enrollmentIds = new ArrayList<>();
+		for (String studentId : createStudents(CAPACITY)) {
+			enrollmentIds.add(enrollmentService.createEnrollment(studentId, course.getCode(), "Fall", "2026").getId());
+		}
+		Long dropped = enrollmentIds.get(0);
+		enrollmentService.updateEnrollmentStatus(dropped, Enrollment.EnrollmentStatus.DROPPED);
+		assertEquals(CAPACITY - 1, enrolledCount(course));
+		// Deleting a dropped enrollment gives nothing back
+		Long droppedAndDeleted = enrollmentIds.get(1);
+		enrollmentService.updateEnrollmentStatus(droppedAndDeleted, Enrollment.EnrollmentStatus.DROPPED);
+		enrollmentService.deleteEnrollment(droppedAndDeleted);
+		assertEquals(CAPACITY - 2, enrolledCount(course));
+
+		// The dropped student re-enrolling and newcomers race for the two free seats
+		List<Callable<?>> tasks = new ArrayList<>();
+		tasks.add(() -> enrollmentService.updateEnrollmentStatus(dropped, Enrollment.EnrollmentStatus.ENROLLED));
+		for (String studentId : createStudents(THREADS - 1)) {
+			tasks.add(() -> enrollmentService.createEnrollment(studentId, course.getCode(), "Fall", "2026"));
+		}
+
+		assertEquals(2, runConcurrently(tasks, "is full"));
+		assertEquals(CAPACITY, enrolledCount(course));
+		assertEquals(CAPACITY, activeEnrollments(course));
+		assertEquals(0, duplicatePairs(course));
+
+		// Deleting an active enrollment frees its seat
+		enrollmentService.deleteEnrollment(enrollmentIds.get(2));
+		assertEquals(CAPACITY - 1, enrolledCount(course));
+		assertEquals(CAPACITY - 1, activeEnrollments(course));
+	}
+}
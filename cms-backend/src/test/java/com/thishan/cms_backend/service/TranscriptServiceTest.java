@@ -0,0 +1,138 @@
+package com.thishan.cms_backend.service;
+
+import com.thishan.cms_backend.dto.BulkEnrollmentRow;
+import com.thishan.cms_backend.dto.BulkGradeRow;
+import com.thishan.cms_backend.dto.Transcript;
+import com.thishan.cms_backend.entity.Course;
+import com.thishan.cms_backend.entity.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The transcript term aggregates are maintained by deltas on every write path, and by
+ * recomputing whole terms after set-based updates. After each step they must equal a
+ * recomputation from the student's enrollments.
+ */
+@SpringBootTest
+@Import(EnrollmentFixtures.class)
+class TranscriptServiceTest {
+
+	@Autowired
+	private EnrollmentFixtures fixtures;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private TranscriptService transcriptService;
+
+	@Test
+	void singleEnrollmentChangesKeepTheAggregatesInStep() {
+		String student = fixtures.createStudents(1).get(0);
+		Course threeCredits = fixtures.createCourse(3, null);
+		Course fourCredits = fixtures.createCourse(4, null);
+		Long first = enrollmentService.createEnrollment(student, threeCredits.getCode(), "Fall", "2026").getId();
+		Long second = enrollmentService.createEnrollment(student, fourCredits.getCode(), "Fall", "2026").getId();
+		fixtures.assertTranscriptMatches(student);
+		assertNull(transcriptService.getTranscript(student).gpa());
+
+		enrollmentService.updateEnrollmentGrade(first, "A");
+		enrollmentService.updateEnrollmentGrade(second, "B");
+		fixtures.assertTranscriptMatches(student);
+		// (3 * 4.0 + 4 * 3.0) / 7
+		Transcript transcript = transcriptService.getTranscript(student);
+		assertEquals(new BigDecimal("3.43"), transcript.gpa());
+		assertEquals(7, transcript.earnedCredits());
+
+		// Regrading replaces the old contribution, and pass grades earn credits outside the GPA
+		enrollmentService.updateEnrollmentGrade(second, "P");
+		fixtures.assertTranscriptMatches(student);
+		transcript = transcriptService.getTranscript(student);
+		assertEquals(new BigDecimal("4.00"), transcript.gpa());
+		assertEquals(3, transcript.attemptedCredits());
+		assertEquals(7, transcript.earnedCredits());
+
+		// Dropping takes the grade off the transcript; reinstating brings it back
+		enrollmentService.updateEnrollmentStatus(first, Enrollment.EnrollmentStatus.DROPPED);
+		fixtures.assertTranscriptMatches(student);
+		assertNull(transcriptService.getTranscript(student).gpa());
+		enrollmentService.updateEnrollmentStatus(first, Enrollment.EnrollmentStatus.COMPLETED);
+		fixtures.assertTranscriptMatches(student);
+
+		// Changing the credits of a course reweights every graded term it appears in
+		Course details = courseService.getCourseById(threeCredits.getId()).orElseThrow();
+		details.setCredits(5);
+		courseService.updateCourse(threeCredits.getId(), details);
+		fixtures.assertTranscriptMatches(student);
+		assertEquals(5, transcriptService.getTranscript(student).attemptedCredits());
+
+		enrollmentService.deleteEnrollment(first);
+		enrollmentService.deleteEnrollment(second);
+		fixtures.assertTranscriptMatches(student);
+		transcript = transcriptService.getTranscript(student);
+		assertEquals(0, transcript.attemptedCredits());
+		assertEquals(0, transcript.earnedCredits());
+		assertNull(transcript.gpa());
+	}
+
+	@Test
+	void bulkPathsKeepTheAggregatesInStep() {
+		String semester = "Term " + EnrollmentFixtures.unique();
+		List<String> students = fixtures.createStudents(5);
+		Course course = fixtures.createCourse(3, null);
+		Course other = fixtures.createCourse(2, null);
+		List<BulkEnrollmentRow> rows = new ArrayList<>();
+		for (String student : students) {
+			rows.add(new BulkEnrollmentRow(student, course.getCode(), semester, "2026"));
+			rows.add(new BulkEnrollmentRow(student, other.getCode(), "Spring", "2027"));
+		}
+		enrollmentService.createEnrollments(rows);
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (String student : students) {
+			enrollments.addAll(enrollmentService.getEnrollmentsByStudentId(student));
+		}
+		students.forEach(fixtures::assertTranscriptMatches);
+
+		// Grades across two terms, with a regrade of the same enrollment in a second batch
+		String[] grades = {"A", "B+", "F", "P", "C-"};
+		List<BulkGradeRow> gradeRows = new ArrayList<>();
+		for (int i = 0; i < enrollments.size(); i++) {
+			gradeRows.add(new BulkGradeRow(enrollments.get(i).getId(), grades[i % grades.length]));
+		}
+		enrollmentService.updateEnrollmentGrades(gradeRows);
+		students.forEach(fixtures::assertTranscriptMatches);
+		enrollmentService.updateEnrollmentGrades(List.of(new BulkGradeRow(enrollments.get(0).getId(), "D"),
+				new BulkGradeRow(enrollments.get(1).getId(), "")));
+		students.forEach(fixtures::assertTranscriptMatches);
+
+		// Dropping the first term in bulk leaves only the second on the transcripts
+		enrollmentService.transitionEnrollmentStatus(List.of(Enrollment.EnrollmentStatus.COMPLETED),
+				Enrollment.EnrollmentStatus.DROPPED, null, semester, "2026");
+		students.forEach(fixtures::assertTranscriptMatches);
+		for (String student : students) {
+			for (Transcript.Term term : transcriptService.getTranscript(student).terms()) {
+				if (term.semester().equals(semester)) {
+					assertEquals(0, term.attemptedCredits());
+					assertEquals(0, term.earnedCredits());
+				}
+			}
+		}
+
+		// A bulk transition that does not drop leaves grades where they are
+		enrollmentService.transitionEnrollmentStatus(List.of(Enrollment.EnrollmentStatus.COMPLETED),
+				Enrollment.EnrollmentStatus.IN_PROGRESS, other.getCode(), null, null);
+		students.forEach(fixtures::assertTranscriptMatches);
+	}
+}
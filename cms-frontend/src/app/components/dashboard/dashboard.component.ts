@@ -6,13 +6,10 @@ import { MatIconModule } from '@angular/material/icon';
 import { MatButtonModule } from '@angular/material/button';
 import { MatMenuModule } from '@angular/material/menu';
 import { MatDialog, MatDialogModule } from '@angular/material/dialog';
-import { CourseService } from '../../services/course.service';
-import { StudentService } from '../../services/student.service';
-import { EnrollmentService } from '../../services/enrollment.service';
+import { DashboardService } from '../../services/dashboard.service';
 import { CourseFormComponent } from '../course-form/course-form.component';
 import { StudentFormComponent } from '../student-form/student-form.component';
 import { EnrollmentFormComponent } from '../enrollment-form/enrollment-form.component';
-import { forkJoin } from 'rxjs';
 
 @Component({
   selector: 'app-dashboard',
@@ -32,7 +29,8 @@ export class DashboardComponent implements OnInit {
   totalCourses = 0;
   totalStudents = 0;
   totalEnrollments = 0;
-  enrollments: any[] = [];
+  successfulEnrollments = 0;
+  recentEnrollments = 0;
   
   // Progress values for visual appeal
   courseProgress = 75;
@@ -43,9 +41,7 @@ export class DashboardComponent implements OnInit {
   Math = Math;
 
   constructor(
-    private readonly courseService: CourseService,
-    private readonly studentService: StudentService,
-    private readonly enrollmentService: EnrollmentService,
+    private readonly dashboardService: DashboardService,
     private readonly dialog: MatDialog
   ) {}
 
@@ -54,16 +50,13 @@ export class DashboardComponent implements OnInit {
   }
 
   loadDashboardData(): void {
-    forkJoin({
-      courses: this.courseService.getAllCourses(),
-      students: this.studentService.getAllStudents(),
-      enrollments: this.enrollmentService.getAllEnrollments()
-    }).subscribe({
-      next: (data) => {
-        this.totalCourses = data.courses.length;
-        this.totalStudents = data.students.length;
-        this.totalEnrollments = data.enrollments.length;
-        this.enrollments = data.enrollments;
+    this.dashboardService.getSummary().subscribe({
+      next: (summary) => {
+        this.totalCourses = summary.totalCourses;
+        this.totalStudents = summary.totalStudents;
+        this.totalEnrollments = summary.totalEnrollments;
+        this.successfulEnrollments = summary.successfulEnrollments;
+        this.recentEnrollments = summary.recentEnrollments;
         
         // Calculate dynamic progress values based on data
         this.courseProgress = Math.min(Math.max(this.totalCourses * 10, 20), 100);
@@ -77,14 +70,7 @@ export class DashboardComponent implements OnInit {
   }
 
   getSuccessfulEnrollments(): number {
-    if (!this.enrollments || this.enrollments.length === 0) {
-      return 0;
-    }
-    
-    return this.enrollments.filter(enrollment => {
-      const grade = enrollment.grade?.toUpperCase();
-      return grade && ['A+', 'A', 'A-', 'B+', 'B', 'B-', 'C+', 'C', 'C-'].includes(grade);
-    }).length;
+    return this.successfulEnrollments;
   }
 
   getSuccessRate(): number {
@@ -98,11 +84,11 @@ export class DashboardComponent implements OnInit {
 
   // Helper methods for template calculations
   getThisMonthGrowth(): number {
-    return Math.floor(this.totalEnrollments * 0.15);
+    return this.recentEnrollments;
   }
 
   getLastMonthTotal(): number {
-    return Math.floor(this.totalEnrollments * 0.85);
+    return this.totalEnrollments - this.recentEnrollments;
   }
 
   getGradeCount(percentage: number): number {
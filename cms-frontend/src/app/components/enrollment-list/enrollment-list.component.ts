@@ -12,7 +12,7 @@ import { MatInputModule } from '@angular/material/input';
 import { FormsModule } from '@angular/forms';
 
 import { EnrollmentService } from '../../services/enrollment.service';
-import { Enrollment } from '../../models/enrollment.model';
+import { EnrollmentSummary } from '../../models/enrollment-summary.model';
 import { EnrollmentFormComponent } from '../enrollment-form/enrollment-form.component';
 
 @Component({
@@ -34,8 +34,8 @@ import { EnrollmentFormComponent } from '../enrollment-form/enrollment-form.comp
   styleUrl: './enrollment-list.component.scss'
 })
 export class EnrollmentListComponent implements OnInit {
-  enrollments: Enrollment[] = [];
-  filteredEnrollments: Enrollment[] = [];
+  enrollments: EnrollmentSummary[] = [];
+  filteredEnrollments: EnrollmentSummary[] = [];
   searchTerm: string = '';
   displayedColumns: string[] = ['id', 'studentName', 'courseName', 'enrollmentDate', 'grade', 'actions'];
 
@@ -50,7 +50,7 @@ export class EnrollmentListComponent implements OnInit {
   }
 
   loadEnrollments(): void {
-    this.enrollmentService.getAllEnrollments().subscribe({
+    this.enrollmentService.getEnrollmentSummaries().subscribe({
       next: (enrollments) => {
         this.enrollments = enrollments;
         this.filteredEnrollments = enrollments;
@@ -77,7 +77,7 @@ export class EnrollmentListComponent implements OnInit {
     });
   }
 
-  editEnrollmentGrade(enrollment: Enrollment): void {
+  editEnrollmentGrade(enrollment: EnrollmentSummary): void {
     const dialogRef = this.dialog.open(EnrollmentFormComponent, {
       width: '500px',
       disableClose: true,
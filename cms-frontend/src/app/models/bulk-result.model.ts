@@ -0,0 +1,12 @@
+export interface BulkRowResult {
+  index: number;
+  success: boolean;
+  id?: number;
+  error?: string;
+}
+
+export interface BulkResult {
+  succeeded: number;
+  failed: number;
+  results: BulkRowResult[];
+}
@@ -0,0 +1,6 @@
+export interface CourseEnrollmentCounts {
+  courseId: number;
+  courseCode: string;
+  total: number;
+  byStatus: { [status: string]: number };
+}
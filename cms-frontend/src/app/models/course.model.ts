@@ -6,6 +6,7 @@ export interface Course {
   credits: number;
   semester?: string;
   department?: string;
+  capacity?: number;
   createdAt?: string;
   updatedAt?: string;
 }
@@ -0,0 +1,6 @@
+export interface CursorPage<T> {
+  items: T[];
+  size: number;
+  nextCursor?: number;
+  hasNext: boolean;
+}
@@ -0,0 +1,9 @@
+export interface DashboardSummary {
+  totalCourses: number;
+  totalStudents: number;
+  totalEnrollments: number;
+  successfulEnrollments: number;
+  recentEnrollments: number;
+  recentDays: number;
+  enrollmentsByStatus: { [status: string]: number };
+}
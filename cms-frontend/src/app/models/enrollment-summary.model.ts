@@ -0,0 +1,19 @@
+import { EnrollmentStatus } from './enrollment.model';
+
+export interface EnrollmentSummary {
+  id: number;
+  student: {
+    studentId: string;
+    firstName: string;
+    lastName: string;
+  };
+  course: {
+    code: string;
+    title: string;
+  };
+  status: EnrollmentStatus;
+  grade?: string;
+  semester?: string;
+  academicYear?: string;
+  enrollmentDate: string;
+}
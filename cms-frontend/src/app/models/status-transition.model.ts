@@ -0,0 +1,13 @@
+export interface StatusTransitionRequest {
+  status: string;
+  fromStatuses?: string[];
+  courseCode?: string;
+  semester?: string;
+  academicYear?: string;
+}
+
+export interface StatusTransitionResult {
+  status: string;
+  updated: number;
+  chunks: number;
+}
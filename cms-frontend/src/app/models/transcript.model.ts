@@ -0,0 +1,19 @@
+export interface TranscriptTerm {
+  semester: string;
+  academicYear: string;
+  attemptedCredits: number;
+  earnedCredits: number;
+  qualityPoints: number;
+  gpa: number | null;
+}
+
+export interface Transcript {
+  studentId: string;
+  firstName: string;
+  lastName: string;
+  attemptedCredits: number;
+  earnedCredits: number;
+  qualityPoints: number;
+  gpa: number | null;
+  terms: TranscriptTerm[];
+}
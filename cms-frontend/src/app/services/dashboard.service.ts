@@ -0,0 +1,18 @@
+import { Injectable } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { DashboardSummary } from '../models/dashboard-summary.model';
+import { environment } from '../../environments/environment';
+
+@Injectable({
+  providedIn: 'root'
+})
+export class DashboardService {
+  private readonly apiUrl = `${environment.apiUrl}/dashboard`;
+
+  constructor(private readonly http: HttpClient) { }
+
+  getSummary(recentDays: number = 30): Observable<DashboardSummary> {
+    return this.http.get<DashboardSummary>(`${this.apiUrl}/summary`, { params: { recentDays } });
+  }
+}
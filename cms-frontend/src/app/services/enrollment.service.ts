@@ -2,6 +2,11 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Enrollment } from '../models/enrollment.model';
+import { EnrollmentSummary } from '../models/enrollment-summary.model';
+import { CursorPage } from '../models/cursor-page.model';
+import { BulkResult } from '../models/bulk-result.model';
+import { CourseEnrollmentCounts } from '../models/course-enrollment-counts.model';
+import { StatusTransitionRequest, StatusTransitionResult } from '../models/status-transition.model';
 import { environment } from '../../environments/environment';
 
 @Injectable({
@@ -16,6 +21,23 @@ export class EnrollmentService {
     return this.http.get<Enrollment[]>(this.apiUrl);
   }
 
+  getEnrollmentSummaries(): Observable<EnrollmentSummary[]> {
+    return this.http.get<EnrollmentSummary[]>(`${this.apiUrl}/summary`);
+  }
+
+  getEnrollmentsPage(size: number, afterId?: number, filters: { status?: string; semester?: string; academicYear?: string } = {}): Observable<CursorPage<Enrollment>> {
+    const params: { [param: string]: string | number } = { size };
+    if (afterId != null) {
+      params['afterId'] = afterId;
+    }
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value) {
+        params[key] = value;
+      }
+    });
+    return this.http.get<CursorPage<Enrollment>>(this.apiUrl, { params });
+  }
+
   getEnrollmentById(id: number): Observable<Enrollment> {
     return this.http.get<Enrollment>(`${this.apiUrl}/${id}`);
   }
@@ -33,6 +55,14 @@ export class EnrollmentService {
     return this.http.put<Enrollment>(`${this.apiUrl}/${id}/grade`, { grade });
   }
 
+  updateEnrollmentGrades(grades: { enrollmentId: number; grade: string }[]): Observable<BulkResult> {
+    return this.http.put<BulkResult>(`${this.apiUrl}/grades`, grades);
+  }
+
+  transitionEnrollmentStatus(request: StatusTransitionRequest): Observable<StatusTransitionResult> {
+    return this.http.put<StatusTransitionResult>(`${this.apiUrl}/status`, request);
+  }
+
   deleteEnrollment(id: number): Observable<void> {
     return this.http.delete<void>(`${this.apiUrl}/${id}`);
   }
@@ -44,4 +74,8 @@ export class EnrollmentService {
   getEnrollmentsByCourse(courseCode: string): Observable<Enrollment[]> {
     return this.http.get<Enrollment[]>(`${this.apiUrl}/course/${courseCode}`);
   }
+
+  getEnrollmentCounts(): Observable<CourseEnrollmentCounts[]> {
+    return this.http.get<CourseEnrollmentCounts[]>(`${this.apiUrl}/counts`);
+  }
 }
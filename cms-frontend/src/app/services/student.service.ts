@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Student } from '../models/student.model';
+import { Transcript } from '../models/transcript.model';
 import { environment } from '../../environments/environment';
 
 @Injectable({
@@ -32,6 +33,10 @@ export class StudentService {
     return this.http.delete<void>(`${this.apiUrl}/${id}`);
   }
 
+  getTranscript(studentId: string): Observable<Transcript> {
+    return this.http.get<Transcript>(`${this.apiUrl}/studentId/${studentId}/transcript`);
+  }
+
   getStudentsByDepartment(department: string): Observable<Student[]> {
     return this.http.get<Student[]>(`${this.apiUrl}/department/${department}`);
   }